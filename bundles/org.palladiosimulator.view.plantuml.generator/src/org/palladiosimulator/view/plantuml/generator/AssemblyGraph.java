@@ -0,0 +1,159 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.Connector;
+import org.palladiosimulator.pcm.repository.RepositoryComponent;
+import org.palladiosimulator.pcm.system.System;
+
+/**
+ * Compact representation of the assembly of a system, built in one pass over its assembly contexts
+ * and connectors.
+ *
+ * Components are numbered in the order of their first assembly context, then of their first
+ * assembly connector. The assembly connectors are stored as adjacency arrays from the providing to
+ * the requiring component, so that diagrams traverse int arrays instead of resolving the contexts
+ * of every connector again. The graph does not follow changes of the system, but it can be shared
+ * by the diagrams of an unchanged system and its allocations.
+ */
+public final class AssemblyGraph {
+
+	private static int getId(final Map<RepositoryComponent, Integer> ids, final RepositoryComponent component) {
+		final Integer id = ids.putIfAbsent(component, ids.size());
+		return id == null ? ids.size() - 1 : id;
+	}
+
+	private static RepositoryComponent getProviding(final AssemblyConnector connector) {
+		final AssemblyContext context = connector.getProvidingAssemblyContext_AssemblyConnector();
+		return context == null ? null : context.getEncapsulatedComponent__AssemblyContext();
+	}
+
+	private static RepositoryComponent getRequiring(final AssemblyConnector connector) {
+		final AssemblyContext context = connector.getRequiringAssemblyContext_AssemblyConnector();
+		return context == null ? null : context.getEncapsulatedComponent__AssemblyContext();
+	}
+
+	private final int assembledComponentCount;
+	private final RepositoryComponent[] components;
+	private final AssemblyConnector[] edgeConnectors;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+
+	/**
+	 * Creates the graph of a system.
+	 *
+	 * @param system the system, {@code null} for an empty graph
+	 */
+	public AssemblyGraph(final System system) {
+		final Map<RepositoryComponent, Integer> ids = new LinkedHashMap<>();
+		final List<AssemblyConnector> connectors = new ArrayList<>();
+		if (system != null) {
+			for (final AssemblyContext context : system.getAssemblyContexts__ComposedStructure()) {
+				if ((context != null) && (context.getEncapsulatedComponent__AssemblyContext() != null)) {
+					getId(ids, context.getEncapsulatedComponent__AssemblyContext());
+				}
+			}
+			for (final Connector connector : system.getConnectors__ComposedStructure()) {
+				if ((connector instanceof final AssemblyConnector assembly) && (getProviding(assembly) != null)
+				        && (getRequiring(assembly) != null)) {
+					connectors.add(assembly);
+				}
+			}
+		}
+
+		assembledComponentCount = ids.size();
+
+		// Counting sort of the connectors by their providing component, keeping their order
+		final int[] sources = new int[connectors.size()];
+		final int[] targets = new int[connectors.size()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = getId(ids, getProviding(connectors.get(i)));
+			targets[i] = getId(ids, getRequiring(connectors.get(i)));
+		}
+		components = ids.keySet().toArray(RepositoryComponent[]::new);
+
+		edgeOffsets = new int[components.length + 1];
+		for (final int source : sources) {
+			edgeOffsets[source + 1]++;
+		}
+		for (int i = 0; i < components.length; i++) {
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+		final int[] next = new int[components.length];
+		edgeConnectors = new AssemblyConnector[sources.length];
+		edgeTargets = new int[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			final int edge = edgeOffsets[sources[i]] + next[sources[i]]++;
+			edgeConnectors[edge] = connectors.get(i);
+			edgeTargets[edge] = targets[i];
+		}
+	}
+
+	/**
+	 * @return the number of components with an assembly context in the system, which are numbered
+	 *         before the components that are only referenced by assembly connectors
+	 */
+	public int getAssembledComponentCount() {
+		return assembledComponentCount;
+	}
+
+	/**
+	 * @param id the number of the component
+	 * @return the component
+	 */
+	public RepositoryComponent getComponent(final int id) {
+		return components[id];
+	}
+
+	/**
+	 * @return the number of components
+	 */
+	public int getComponentCount() {
+		return components.length;
+	}
+
+	/**
+	 * @param edge the number of the edge
+	 * @return the assembly connector of the edge
+	 */
+	public AssemblyConnector getConnector(final int edge) {
+		return edgeConnectors[edge];
+	}
+
+	/**
+	 * @return the number of edges, i.e. of assembly connectors between components
+	 */
+	public int getEdgeCount() {
+		return edgeTargets.length;
+	}
+
+	/**
+	 * @param id the number of a component
+	 * @return the end of the edges of a component, exclusive
+	 */
+	public int getEdgeEnd(final int id) {
+		return edgeOffsets[id + 1];
+	}
+
+	/**
+	 * @param id the number of a component
+	 * @return the first of the edges to the components requiring the component
+	 */
+	public int getEdgeStart(final int id) {
+		return edgeOffsets[id];
+	}
+
+	/**
+	 * @param edge the number of an edge
+	 * @return the number of the requiring component of the edge
+	 */
+	public int getEdgeTarget(final int edge) {
+		return edgeTargets[edge];
+	}
+
+}
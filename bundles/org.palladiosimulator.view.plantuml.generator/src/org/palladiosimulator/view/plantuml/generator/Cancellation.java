@@ -0,0 +1,50 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cooperative cancellation of one generator. A request is bound to the generating thread and taken
+ * over by the generator at the start of each phase, so that it is also checked on the threads of a
+ * parallel emission.
+ */
+final class Cancellation {
+
+	private static final BooleanSupplier NEVER = () -> false;
+
+	private static final ThreadLocal<BooleanSupplier> REQUESTS = ThreadLocal.withInitial(() -> NEVER);
+
+	/**
+	 * Runs a generation that is cancelled as soon as the request returns {@code true}.
+	 */
+	static <T> T run(final BooleanSupplier cancelled, final Supplier<T> generation) {
+		final BooleanSupplier outer = REQUESTS.get();
+		REQUESTS.set(Objects.requireNonNull(cancelled));
+		try {
+			return generation.get();
+		} finally {
+			REQUESTS.set(outer);
+		}
+	}
+
+	private volatile BooleanSupplier request = NEVER;
+
+	/**
+	 * Takes over the request of the current thread, called at the start of a phase.
+	 */
+	void begin() {
+		request = REQUESTS.get();
+	}
+
+	/**
+	 * @throws CancellationException if the generation was cancelled
+	 */
+	void check() {
+		if (request.getAsBoolean()) {
+			throw new CancellationException("The diagram generation was cancelled.");
+		}
+	}
+
+}
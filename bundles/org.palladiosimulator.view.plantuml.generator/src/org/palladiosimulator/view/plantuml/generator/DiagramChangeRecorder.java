@@ -0,0 +1,171 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Keeps the last generated diagram of each model and records the elements that were changed since.
+ *
+ * The recorder is attached to the resource set of the models, so that changes of referenced models
+ * are recorded as well. Diagrams are only regenerated if the models were changed and generators can
+ * limit the regeneration to the changed elements.
+ *
+ * The diagram of a model is dropped when its resource is unloaded or removed from the resource set,
+ * or when the model is removed from its resource. It is also dropped when many elements were
+ * changed before the diagram was requested again, then the diagram is generated from scratch.
+ */
+public class DiagramChangeRecorder extends EContentAdapter {
+
+	/*
+	 * The last diagram of a model, the resource the model was contained in when the diagram was
+	 * generated and the elements changed since.
+	 */
+	private record Entry(Resource resource, UmlDiagramSupplier diagram, Set<EObject> changes) {
+	}
+
+	private static final int MAX_CHANGES = 10000;
+
+	/**
+	 * Returns the recorder of the resource set of a model and attaches a new one if there is none
+	 * yet. If the model is not contained in a resource set, the recorder is attached to the model.
+	 *
+	 * @param source the model
+	 * @return the recorder
+	 */
+	public static synchronized DiagramChangeRecorder getOrAttach(final EObject source) {
+		final Notifier target = DiagramChangeRecorder.getTarget(Objects.requireNonNull(source));
+		final DiagramChangeRecorder existing = (DiagramChangeRecorder) EcoreUtil.getExistingAdapter(target,
+		        DiagramChangeRecorder.class);
+		if (existing != null) {
+			return existing;
+		}
+		final DiagramChangeRecorder recorder = new DiagramChangeRecorder();
+		target.eAdapters().add(recorder);
+		return recorder;
+	}
+
+	private static Notifier getTarget(final EObject source) {
+		final Resource resource = source.eResource();
+		if ((resource != null) && (resource.getResourceSet() != null)) {
+			return resource.getResourceSet();
+		}
+		return EcoreUtil.getRootContainer(source);
+	}
+
+	private long changeCount;
+
+	private final Map<EObject, Entry> entries = new HashMap<>();
+
+	private DiagramChangeRecorder() {
+	}
+
+	/*
+	 * Drops the diagrams of models whose resource was unloaded or removed from the resource set and
+	 * of models that were removed from their resource.
+	 */
+	private void evict(final Notification notification) {
+		final Collection<?> removed;
+		if ((notification.getNotifier() instanceof final Resource resource)
+		        && (notification.getFeatureID(Resource.class) == Resource.RESOURCE__IS_LOADED)
+		        && !notification.getNewBooleanValue()) {
+			removed = List.of(resource);
+		} else if (notification.getEventType() == Notification.REMOVE) {
+			removed = notification.getOldValue() == null ? List.of() : List.of(notification.getOldValue());
+		} else if (notification.getEventType() == Notification.REMOVE_MANY) {
+			removed = (Collection<?>) notification.getOldValue();
+		} else {
+			return;
+		}
+		synchronized (this) {
+			changeCount++;
+			entries.entrySet().removeIf(x -> removed.contains(x.getKey())
+			        || ((x.getValue().resource() != null) && removed.contains(x.getValue().resource())));
+		}
+	}
+
+	/**
+	 * Returns the current diagram of a model. The diagram is generated if there is none yet or if
+	 * the models were changed since it was generated.
+	 *
+	 * @param <T>       the type of the diagram
+	 * @param source    the model
+	 * @param type      the type of the diagram
+	 * @param generator creates the diagram from the previous diagram, which may be {@code null}, and
+	 *                  the elements changed since
+	 * @return the diagram
+	 */
+	public <T extends UmlDiagramSupplier> T getDiagram(final EObject source, final Class<T> type,
+	        final BiFunction<T, Set<EObject>, T> generator) {
+		final T previous;
+		final Set<EObject> changes;
+		final long count;
+		synchronized (this) {
+			final Entry entry = entries.get(source);
+			previous = (entry != null) && type.isInstance(entry.diagram()) ? type.cast(entry.diagram()) : null;
+			if ((previous != null) && entry.changes().isEmpty()) {
+				return previous;
+			}
+			changes = entry == null ? Set.of() : Set.copyOf(entry.changes());
+			count = changeCount;
+		}
+		// The models are not locked, notifications are recorded while the diagram is generated.
+		final T generated = generator.apply(previous, changes);
+		synchronized (this) {
+			// A diagram of models changed during the generation is generated again on the next request.
+			if (changeCount == count) {
+				entries.put(source, new Entry(source.eResource(), generated, new HashSet<>()));
+			}
+		}
+		return generated;
+	}
+
+	/**
+	 * Returns the number of changes recorded so far. Diagrams generated while the number changed
+	 * may contain elements of different model states.
+	 *
+	 * @return the number of changes
+	 */
+	public synchronized long getChangeCount() {
+		return changeCount;
+	}
+
+	@Override
+	public boolean isAdapterForType(final Object type) {
+		return type == DiagramChangeRecorder.class;
+	}
+
+	@Override
+	public void notifyChanged(final Notification notification) {
+		super.notifyChanged(notification);
+
+		// Reordering does not change the diagrams, their elements are sorted by name.
+		if (notification.isTouch() || (notification.getEventType() == Notification.MOVE)
+		        || (notification.getEventType() == Notification.REMOVING_ADAPTER)) {
+			return;
+		}
+		if (notification.getNotifier() instanceof final EObject changed) {
+			synchronized (this) {
+				changeCount++;
+				entries.values().forEach(x -> x.changes().add(changed));
+				// Diagrams that are not requested for long are generated from scratch
+				entries.values().removeIf(x -> x.changes().size() > DiagramChangeRecorder.MAX_CHANGES);
+			}
+		} else {
+			evict(notification);
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+/**
+ * Options of the diagram generators.
+ *
+ * @param parallel      whether large diagrams are generated on several threads
+ * @param elementBudget the maximum number of nodes and of edges of a diagram at full detail. Larger
+ *                      diagrams are generated at a reduced level of detail with at most this number
+ *                      of nodes and edges.
+ * @param shortAliases  whether the nodes of a diagram are declared with short aliases like
+ *                      {@code C1}, which the edges refer to instead of the full names. The diagram
+ *                      looks the same, but its text is much shorter.
+ * @param hyperlinks    whether components link to their models in system and allocation diagrams.
+ *                      The links only work in the workbench, so headless runs can leave them out.
+ */
+public record DiagramOptions(boolean parallel, int elementBudget, boolean shortAliases, boolean hyperlinks) {
+
+	/**
+	 * Parallel generation with hyperlinks, but without an element budget and without short aliases.
+	 */
+	public static final DiagramOptions DEFAULT = new DiagramOptions(true, Integer.MAX_VALUE, false, true);
+
+	public DiagramOptions {
+		if (elementBudget < 1) {
+			throw new IllegalArgumentException("elementBudget must be positive: " + elementBudget);
+		}
+	}
+
+	public DiagramOptions(final boolean parallel, final int elementBudget) {
+		this(parallel, elementBudget, false, true);
+	}
+
+	public DiagramOptions withElementBudget(final int elementBudget) {
+		return new DiagramOptions(parallel, elementBudget, shortAliases, hyperlinks);
+	}
+
+	public DiagramOptions withHyperlinks(final boolean hyperlinks) {
+		return new DiagramOptions(parallel, elementBudget, shortAliases, hyperlinks);
+	}
+
+	public DiagramOptions withParallel(final boolean parallel) {
+		return new DiagramOptions(parallel, elementBudget, shortAliases, hyperlinks);
+	}
+
+	public DiagramOptions withShortAliases(final boolean shortAliases) {
+		return new DiagramOptions(parallel, elementBudget, shortAliases, hyperlinks);
+	}
+
+}
@@ -0,0 +1,284 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.command.BasicCommandStack;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emf.edit.domain.EditingDomain;
+
+/**
+ * A size-bounded cache of diagram texts that is kept in memory and on disk, so that diagrams of
+ * unchanged models are available instantly, also after a restart.
+ *
+ * The cache key of a diagram consists of the diagram type, the URI of the model and the URIs and
+ * time stamps of all resources in its resource set. Diagrams of models that are not saved are not
+ * cached. Resources that track their modification tell whether they are saved, the resources of
+ * editors are saved if the command stack of their editing domain needs no save. The least recently
+ * used entries are evicted first.
+ *
+ * The elements of a diagram that is not cached are collected when it is requested, its text is only
+ * generated when the returned diagram is rendered. The texts are generated and the files are read
+ * and written outside of the lock of the cache. A diagram that is rendered while it is generated is
+ * generated only once, the later requests wait for the text of the first one.
+ */
+public class DiagramTextCache {
+
+	private static final String FILE_EXTENSION = ".puml";
+
+	private static FileTime getLastModifiedTime(final Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (final IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static String hash(final String key) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Only resources that track their modification know whether they differ from their files. Editors
+	 * track it in the command stack of their editing domain instead, other resources may have been
+	 * changed at any time.
+	 */
+	private static boolean isSaved(final EObject source, final List<Resource> resources) {
+		if (resources.stream().anyMatch(Resource::isModified)) {
+			return false;
+		}
+		if (resources.stream().allMatch(Resource::isTrackingModification)) {
+			return true;
+		}
+		final EditingDomain domain = AdapterFactoryEditingDomain.getEditingDomainFor(source);
+		return (domain != null) && (domain.getCommandStack() instanceof final BasicCommandStack commandStack)
+		        && !commandStack.isSaveNeeded();
+	}
+
+	private final Path directory;
+	private final Map<String, String> entries;
+	private final Map<String, CompletableFuture<String>> generations = new HashMap<>();
+	private final int maxEntries;
+	private final String version;
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param directory  the directory of the cache files, may be {@code null} to keep the entries in
+	 *                   memory only
+	 * @param maxEntries the maximum number of entries in memory and on disk
+	 * @param version    the version of the generators, entries of other versions are not used
+	 */
+	public DiagramTextCache(final Path directory, final int maxEntries, final String version) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The cache must be able to hold at least one entry.");
+		}
+		this.directory = directory;
+		this.maxEntries = maxEntries;
+		this.version = Objects.requireNonNull(version);
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+				return size() > DiagramTextCache.this.maxEntries;
+			}
+		};
+	}
+
+	private String generate(final String key, final UmlDiagramSupplier diagram) {
+		final CompletableFuture<String> running;
+		synchronized (this) {
+			final String cachedText = entries.get(key);
+			if (cachedText != null) {
+				return cachedText;
+			}
+			running = generations.get(key);
+			if (running == null) {
+				generations.put(key, new CompletableFuture<>());
+			}
+		}
+
+		if (running != null) {
+			final String generatedText = running.join();
+			// The text is null if the first generation failed or was cancelled
+			return generatedText == null ? diagram.get() : generatedText;
+		}
+		String diagramText = null;
+		try {
+			diagramText = diagram.get();
+			return diagramText;
+		} finally {
+			final CompletableFuture<String> generation;
+			synchronized (this) {
+				generation = generations.remove(key);
+				if (diagramText != null) {
+					entries.put(key, diagramText);
+				}
+			}
+			generation.complete(diagramText);
+			if (diagramText != null) {
+				write(key, diagramText);
+			}
+		}
+	}
+
+	/**
+	 * Returns the diagram of a model from the cache or collects a diagram whose text is cached when it
+	 * is generated.
+	 *
+	 * @param source    the model
+	 * @param type      the type of the diagram
+	 * @param generator collects the diagram if it is not cached
+	 * @return the diagram
+	 */
+	public UmlDiagramSupplier get(final EObject source, final Class<? extends UmlDiagramSupplier> type,
+	        final Supplier<? extends UmlDiagramSupplier> generator) {
+		return get(source, type, 0, generator);
+	}
+
+	/**
+	 * Returns a page of the diagram of a model from the cache or collects a page whose text is cached
+	 * when it is generated.
+	 *
+	 * @param source    the model
+	 * @param type      the type of the diagram
+	 * @param page      the index of the page, {@code 0} for a diagram without pages
+	 * @param generator collects the page if it is not cached
+	 * @return the page
+	 */
+	public UmlDiagramSupplier get(final EObject source, final Class<? extends UmlDiagramSupplier> type,
+	        final int page, final Supplier<? extends UmlDiagramSupplier> generator) {
+		final String key = getKey(Objects.requireNonNull(source), Objects.requireNonNull(type), page);
+		if (key == null) {
+			return generator.get();
+		}
+
+		String cachedText;
+		synchronized (this) {
+			cachedText = entries.get(key);
+		}
+		if (cachedText == null) {
+			cachedText = read(key);
+		}
+		if (cachedText != null) {
+			final String diagramText = cachedText;
+			synchronized (this) {
+				entries.put(key, diagramText);
+			}
+			return () -> diagramText;
+		}
+
+		final UmlDiagramSupplier diagram = generator.get();
+		return () -> generate(key, diagram);
+	}
+
+	private String getKey(final EObject source, final Class<? extends UmlDiagramSupplier> type, final int page) {
+		final Resource resource = source.eResource();
+		if ((resource == null) || (resource.getResourceSet() == null)) {
+			return null;
+		}
+		final ResourceSet resourceSet = resource.getResourceSet();
+		final StringBuilder key = new StringBuilder(version).append('\n').append(type.getName()).append('\n')
+		        .append(EcoreUtil.getURI(source));
+		if (page > 0) {
+			key.append('#').append(page);
+		}
+
+		final List<Resource> resources = resourceSet.getResources().stream().filter(Resource::isLoaded)
+		        .sorted(Comparator.comparing(x -> String.valueOf(x.getURI()))).toList();
+		if (!DiagramTextCache.isSaved(source, resources)) {
+			return null;
+		}
+		for (final Resource dependency : resources) {
+			key.append('\n').append(dependency.getURI()).append('@')
+			        .append(getTimeStamp(resourceSet.getURIConverter(), dependency));
+		}
+		return hash(key.toString());
+	}
+
+	private long getTimeStamp(final URIConverter converter, final Resource resource) {
+		final URI uri = resource.getURI();
+		if (uri != null) {
+			final Object timeStamp = converter.getAttributes(uri,
+			        Map.of(URIConverter.OPTION_REQUESTED_ATTRIBUTES, Set.of(URIConverter.ATTRIBUTE_TIME_STAMP)))
+			        .get(URIConverter.ATTRIBUTE_TIME_STAMP);
+			if (timeStamp instanceof final Long fileTimeStamp) {
+				return fileTimeStamp;
+			}
+		}
+		return resource.getTimeStamp();
+	}
+
+	private String read(final String key) {
+		if (directory == null) {
+			return null;
+		}
+		final Path file = directory.resolve(key + FILE_EXTENSION);
+		try {
+			if (!Files.isRegularFile(file)) {
+				return null;
+			}
+			final String diagramText = Files.readString(file, StandardCharsets.UTF_8);
+			// Mark the entry as recently used
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return diagramText;
+		} catch (final IOException e) {
+			// The cache is optional, the diagram is generated instead.
+			return null;
+		}
+	}
+
+	private void write(final String key, final String diagramText) {
+		if (directory == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(directory);
+			final Path temp = Files.createTempFile(directory, key, null);
+			Files.writeString(temp, diagramText, StandardCharsets.UTF_8);
+			Files.move(temp, directory.resolve(key + FILE_EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+			        StandardCopyOption.ATOMIC_MOVE);
+
+			final List<Path> files;
+			try (Stream<Path> stream = Files.list(directory)) {
+				files = stream.filter(x -> x.getFileName().toString().endsWith(FILE_EXTENSION))
+				        .sorted(Comparator.comparing(DiagramTextCache::getLastModifiedTime)).toList();
+			}
+			for (int i = 0; i < (files.size() - maxEntries); i++) {
+				Files.deleteIfExists(files.get(i));
+			}
+		} catch (final IOException e) {
+			// The cache is optional, the diagram is kept in memory only.
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.palladiosimulator.pcm.core.entity.NamedElement;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
+
+/**
+ * Memo of escaped identifiers for one generation run. Entity names are escaped once per string
+ * instance, although they are escaped again for every comparison and every reference in the
+ * diagram.
+ *
+ * The identifiers of the elements of the diagram are built once per element as well. Since names
+ * lose their special characters when they are escaped, different names can have the same
+ * identifier. Such collisions are reported to the {@link GenerationListener}.
+ *
+ * @see UmlDiagramSupplier#escape(Object)
+ */
+final class EscapedNames {
+
+	private record SortKey<T>(String name, T element) {
+	}
+
+	private final Map<String, Integer> aliasCounts = new HashMap<>();
+	private final Map<String, String> aliases = new HashMap<>();
+	private final Map<String, String> identifiedNames = new HashMap<>();
+	private final Map<Object, String> identifiers = new IdentityHashMap<>();
+	private final GenerationMetrics metrics;
+	private final Map<Object, String> names = new IdentityHashMap<>();
+	private boolean readOnly;
+
+	EscapedNames(final GenerationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the short alias of an identifier, e.g. {@code C1} for the first component. Elements
+	 * with the same identifier share their alias, as they share their node in the diagram. Aliases
+	 * are numbered in the order of their first request, so they have to be requested before the memo
+	 * is read-only.
+	 *
+	 * @param identifier the identifier
+	 * @param prefix     the prefix of the alias for the kind of element
+	 * @return the alias
+	 * @throws IllegalStateException if the identifier has no alias yet and the memo is read-only
+	 */
+	String alias(final String identifier, final String prefix) {
+		String alias = aliases.get(identifier);
+		if (alias == null) {
+			if (readOnly) {
+				throw new IllegalStateException("No alias of " + identifier);
+			}
+			alias = prefix + aliasCounts.merge(prefix, 1, Integer::sum);
+			aliases.put(identifier, alias);
+		}
+		return alias;
+	}
+
+	/**
+	 * @param identifier the identifier, may be {@code null}
+	 * @return the escaped identifier
+	 * @see UmlDiagramSupplier#escape(Object)
+	 */
+	String escape(final Object identifier) {
+		if (identifier == null) {
+			return "";
+		}
+		String name = names.get(identifier);
+		if (name == null) {
+			final long start = metrics.start();
+			name = UmlDiagramSupplier.escape(identifier);
+			metrics.add(Phase.ESCAPING, start);
+			if (!readOnly) {
+				names.put(identifier, name);
+			}
+		}
+		return name;
+	}
+
+	/**
+	 * @param element the element
+	 * @return the identifier of the element, its escaped name
+	 * @see #identifier(Object, String, String)
+	 */
+	String identifier(final NamedElement element) {
+		return identifier(element, "", element.getEntityName());
+	}
+
+	/**
+	 * Returns the identifier of an element of the diagram, which is built only on the first call for
+	 * the element. While the memo is writable, a collision with the identifier of an element of a
+	 * different name is detected by a single lookup.
+	 *
+	 * @param element the element
+	 * @param prefix  the prefix of the identifier, which is not escaped
+	 * @param name    the name of the element, may be {@code null}
+	 * @return the prefix followed by the escaped name
+	 */
+	String identifier(final Object element, final String prefix, final String name) {
+		String identifier = identifiers.get(element);
+		if (identifier == null) {
+			identifier = prefix.isEmpty() ? escape(name) : prefix + escape(name);
+			if (!readOnly) {
+				identifiers.put(element, identifier);
+				final String otherName = identifiedNames.putIfAbsent(identifier, Objects.toString(name, ""));
+				if ((otherName != null) && !otherName.equals(Objects.toString(name, ""))) {
+					metrics.collided(identifier, otherName, name);
+				}
+			}
+		}
+		return identifier;
+	}
+
+	/**
+	 * While the memo is read-only, it can be used by several threads. Identifiers that were not
+	 * escaped before are escaped again on every call.
+	 *
+	 * @param readOnly whether new identifiers are not memoized
+	 */
+	void setReadOnly(final boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Sorts elements like {@link UmlDiagramSupplier#byName()}, but escapes the name of every element
+	 * only once instead of on every comparison.
+	 *
+	 * @param elements the elements
+	 * @return a new list of the elements sorted by their escaped names, elements with equal names keep
+	 *         their order
+	 */
+	<T extends NamedElement> List<T> sortedByName(final Collection<? extends T> elements) {
+		final long start = metrics.start();
+		final List<SortKey<T>> keys = new ArrayList<>(elements.size());
+		for (final T element : elements) {
+			keys.add(new SortKey<>(escape(element.getEntityName()), element));
+		}
+		keys.sort(Comparator.comparing(SortKey::name));
+
+		final List<T> sorted = new ArrayList<>(keys.size());
+		for (final SortKey<T> key : keys) {
+			sorted.add(key.element());
+		}
+		metrics.add(Phase.SORTING, start);
+		return sorted;
+	}
+
+}
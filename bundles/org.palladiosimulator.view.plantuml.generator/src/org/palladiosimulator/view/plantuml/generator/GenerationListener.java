@@ -0,0 +1,79 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+/**
+ * Receives the timings and sizes of the diagram generation, e.g. to find out why the diagram of a
+ * model is slow, and the collisions of identifiers. The listener is called on the generating
+ * threads and should return quickly.
+ *
+ * @see UmlDiagramSupplier#setGenerationListener(GenerationListener)
+ */
+public interface GenerationListener {
+
+	enum Phase {
+		/**
+		 * Traversal of the model and sorting of its elements when the generator is created
+		 */
+		COLLECTION,
+		/**
+		 * Writing of the diagram text
+		 */
+		EMISSION,
+		/**
+		 * Escaping of names, part of the collection and emission
+		 */
+		ESCAPING,
+		/**
+		 * Request of a diagram text by the view, including the generation or the cache lookup
+		 */
+		REQUEST,
+		/**
+		 * Sorting of elements by name, part of the collection and emission
+		 */
+		SORTING
+	}
+
+	/**
+	 * The listener that ignores all metrics.
+	 */
+	GenerationListener NONE = new GenerationListener() {
+	};
+
+	/**
+	 * Called when a diagram text was written.
+	 *
+	 * @param diagram        the type of the diagram
+	 * @param elements       the number of model elements of the diagram
+	 * @param characters     the length of the diagram text
+	 * @param allocatedBytes an estimate of the bytes allocated by the generation, 0 if unknown
+	 */
+	default void diagramGenerated(final Class<? extends UmlDiagramSupplier> diagram, final int elements,
+	        final long characters, final long allocatedBytes) {
+	}
+
+	/**
+	 * Called when different names have the same identifier, so that PlantUML shows their elements as
+	 * one element. Names only collide if they differ in characters other than ASCII letters, digits
+	 * and underscores.
+	 *
+	 * @param diagram    the type of the diagram
+	 * @param identifier the identifier
+	 * @param name       the name that was identified first
+	 * @param otherName  the other name
+	 */
+	default void identifierCollided(final Class<? extends UmlDiagramSupplier> diagram, final String identifier,
+	        final String name, final String otherName) {
+	}
+
+	/**
+	 * Called when a phase of the generation is completed. Phases that are part of other phases are
+	 * reported with their total time when the diagram text was written.
+	 *
+	 * @param diagram the type of the diagram
+	 * @param phase   the phase
+	 * @param nanos   the duration of the phase in nanoseconds
+	 */
+	default void phaseCompleted(final Class<? extends UmlDiagramSupplier> diagram, final Phase phase,
+	        final long nanos) {
+	}
+
+}
@@ -0,0 +1,167 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
+
+/**
+ * Metrics of one generator for the {@link GenerationListener}. Without a listener, the metrics are
+ * disabled and cost nothing but a field check.
+ */
+final class GenerationMetrics {
+
+	/*
+	 * Counts the characters written to an appendable.
+	 */
+	private static final class CountingAppendable implements Appendable {
+
+		private long count;
+		private final Appendable out;
+
+		CountingAppendable(final Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		public Appendable append(final char c) throws IOException {
+			count++;
+			out.append(c);
+			return this;
+		}
+
+		@Override
+		public Appendable append(final CharSequence csq) throws IOException {
+			count += String.valueOf(csq).length();
+			out.append(csq);
+			return this;
+		}
+
+		@Override
+		public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+			count += end - start;
+			out.append(csq, start, end);
+			return this;
+		}
+
+	}
+
+	private static volatile GenerationListener listener = GenerationListener.NONE;
+
+	private static final com.sun.management.ThreadMXBean THREADS = getThreadBean();
+
+	// The bytes allocated by the current thread, 0 if unknown
+	private static long getAllocatedBytes() {
+		return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	static GenerationListener getListener() {
+		return listener;
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		try {
+			if ((ManagementFactory.getThreadMXBean() instanceof final com.sun.management.ThreadMXBean threads)
+			        && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads;
+			}
+		} catch (final LinkageError e) {
+			// Not a HotSpot JVM, allocations are unknown
+		}
+		return null;
+	}
+
+	static void setListener(final GenerationListener listener) {
+		GenerationMetrics.listener = listener == null ? GenerationListener.NONE : listener;
+	}
+
+	private long allocatedBytes;
+	private final Class<? extends UmlDiagramSupplier> diagram;
+	private long phaseAllocatedBytes;
+	private final GenerationListener target;
+	private final AtomicLongArray totals = new AtomicLongArray(Phase.values().length);
+
+	GenerationMetrics(final Class<? extends UmlDiagramSupplier> diagram) {
+		this.diagram = diagram;
+		target = listener;
+	}
+
+	/**
+	 * Adds the duration of a nested phase, which is reported when the diagram text is written.
+	 */
+	void add(final Phase phase, final long start) {
+		if (isEnabled()) {
+			totals.addAndGet(phase.ordinal(), System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Reports different names with the same identifier.
+	 */
+	void collided(final String identifier, final String name, final String otherName) {
+		if (isEnabled()) {
+			target.identifierCollided(diagram, identifier, name, otherName);
+		}
+	}
+
+	/**
+	 * Wraps the appendable the diagram text is written to, so that its length is known.
+	 */
+	Appendable count(final Appendable out) {
+		return isEnabled() ? new CountingAppendable(out) : out;
+	}
+
+	/**
+	 * Reports the nested phases and the size of the generated diagram.
+	 *
+	 * @param elements the number of model elements of the diagram
+	 * @param out      the appendable returned by {@link #count(Appendable)}
+	 */
+	void generated(final int elements, final Appendable out) {
+		if (isEnabled()) {
+			for (final Phase phase : Phase.values()) {
+				final long nanos = totals.getAndSet(phase.ordinal(), 0);
+				if (nanos > 0) {
+					target.phaseCompleted(diagram, phase, nanos);
+				}
+			}
+			final long characters = out instanceof final CountingAppendable counting ? counting.count : 0;
+			target.diagramGenerated(diagram, elements, characters, allocatedBytes);
+			allocatedBytes = 0;
+		}
+	}
+
+	boolean isEnabled() {
+		return target != GenerationListener.NONE;
+	}
+
+	/**
+	 * @return the start of a nested phase, to be passed to {@link #add(Phase, long)}
+	 */
+	long start() {
+		return isEnabled() ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * @return the start of a top-level phase, to be passed to {@link #stopPhase(Phase, long)}
+	 */
+	long startPhase() {
+		if (isEnabled()) {
+			phaseAllocatedBytes = getAllocatedBytes();
+			return System.nanoTime();
+		}
+		return 0;
+	}
+
+	/**
+	 * Reports a top-level phase and adds the bytes allocated by the current thread since its start.
+	 */
+	void stopPhase(final Phase phase, final long start) {
+		if (isEnabled()) {
+			target.phaseCompleted(diagram, phase, System.nanoTime() - start);
+			allocatedBytes += getAllocatedBytes() - phaseAllocatedBytes;
+		}
+	}
+
+}
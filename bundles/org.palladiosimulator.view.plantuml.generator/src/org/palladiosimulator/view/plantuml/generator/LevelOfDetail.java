@@ -0,0 +1,105 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reduced level of detail of a diagram that exceeds its element budget. Parallel edges between two
+ * nodes are aggregated into one weighted edge. At most budget nodes are shown, the nodes with the
+ * most edges first, and at most budget edges between them.
+ *
+ * @param <T> the type of the nodes
+ * @see DiagramOptions#elementBudget()
+ */
+final class LevelOfDetail<T> {
+
+	/**
+	 * @param from   the escaped name of the source node
+	 * @param to     the escaped name of the target node
+	 * @param label  the label of the first aggregated edge
+	 * @param weight the number of aggregated edges
+	 */
+	record Edge(String from, String to, String label, int weight) {
+	}
+
+	private final int budget;
+	private final Map<List<String>, Edge> edges = new HashMap<>();
+	private final Map<String, T> nodes = new HashMap<>();
+	private List<Edge> shownEdges;
+	private List<T> shownNodes;
+
+	LevelOfDetail(final int budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Adds an edge. Edges between the same nodes are aggregated, edges of a node to itself are
+	 * ignored.
+	 */
+	void addEdge(final String from, final String to, final String label) {
+		if (!from.equals(to)) {
+			edges.merge(List.of(from, to), new Edge(from, to, label, 1),
+			        (x, y) -> new Edge(x.from(), x.to(), x.label(), x.weight() + y.weight()));
+		}
+	}
+
+	/**
+	 * Adds a node, nodes with the same escaped name are the same node.
+	 */
+	void addNode(final String name, final T node) {
+		nodes.putIfAbsent(name, node);
+	}
+
+	// example: note "Reduced level of detail: 10 of 20 nodes and 5 of 30 edges are shown" as LevelOfDetail
+	void appendSummary(final StringBuilder buffer) {
+		select();
+		buffer.append("note \"Reduced level of detail: ");
+		buffer.append(shownNodes.size()).append(" of ").append(nodes.size()).append(" nodes and ");
+		buffer.append(shownEdges.size()).append(" of ").append(edges.size()).append(" edges are shown");
+		buffer.append("\" as LevelOfDetail\n");
+	}
+
+	/**
+	 * @return the shown edges, sorted by the names of their source and target nodes
+	 */
+	List<Edge> getEdges() {
+		select();
+		return shownEdges;
+	}
+
+	/**
+	 * @return the shown nodes, sorted by name
+	 */
+	List<T> getNodes() {
+		select();
+		return shownNodes;
+	}
+
+	private void select() {
+		if (shownNodes != null) {
+			return;
+		}
+		final Map<String, Integer> degrees = new HashMap<>();
+		for (final Edge edge : edges.values()) {
+			if (nodes.containsKey(edge.from()) && nodes.containsKey(edge.to())) {
+				degrees.merge(edge.from(), edge.weight(), Integer::sum);
+				degrees.merge(edge.to(), edge.weight(), Integer::sum);
+			}
+		}
+		final Map<String, T> selected = new TreeMap<>();
+		nodes.keySet().stream()
+		        .sorted(Comparator.comparing((final String x) -> degrees.getOrDefault(x, 0)).reversed()
+		                .thenComparing(Comparator.naturalOrder()))
+		        .limit(budget).forEach(x -> selected.put(x, nodes.get(x)));
+		shownNodes = new ArrayList<>(selected.values());
+
+		shownEdges = edges.values().stream()
+		        .filter(x -> selected.containsKey(x.from()) && selected.containsKey(x.to()))
+		        .sorted(Comparator.comparing(Edge::from).thenComparing(Edge::to)).limit(budget).toList();
+	}
+
+}
@@ -1,117 +1,163 @@
 package org.palladiosimulator.view.plantuml.generator;
 
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.byName;
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.escape;
 import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.getEObjectHyperlink;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.palladiosimulator.pcm.allocation.Allocation;
 import org.palladiosimulator.pcm.allocation.AllocationContext;
 import org.palladiosimulator.pcm.core.composition.AssemblyContext;
-import org.palladiosimulator.pcm.core.composition.impl.AssemblyConnectorImpl;
 import org.palladiosimulator.pcm.core.entity.NamedElement;
 import org.palladiosimulator.pcm.repository.BasicComponent;
 import org.palladiosimulator.pcm.repository.CompositeComponent;
 import org.palladiosimulator.pcm.repository.RepositoryComponent;
-import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
 
 public class PcmAllocationDiagramGenerator implements UmlDiagramSupplier {
 
+	private static final String AS = " as ";
 	private static final String COMPONENT_KEYWORD = "component";
 	private static final String COMPONENT_START = "[", COMPONENT_END = "]";
+	private static final String CONTAINER_ALIAS = "N";
 	private static final String CONTAINER_KEYWORD = "node";
 	private static final String CURLY_OPENING_BRACKET = "{", CURLY_CLOSING_BRACKET = "}";
 	private static final String LINK_START = "[[", LINK_END = "]]";
+	private static final String NAME_START = "\"", NAME_END = "\"";
 	private static final String NEWLINE = "\n";
+	private static final String PAGE_STUB_START = "<<page ", PAGE_STUB_END = ">>";
 	private static final String PROVIDES_REQUIRES_LINK = " - ";
 	private static final String SPACE = " ";
+	private static final String STUB_LINK = " .. ";
+
+	private static int getSource(final long edge) {
+		return (int) (edge >>> Integer.SIZE);
+	}
+
+	private static int getTarget(final long edge) {
+		return (int) edge;
+	}
+
+	private static long toEdge(final int from, final int to) {
+		return ((long) from << Integer.SIZE) | (to & 0xFFFFFFFFL);
+	}
+
+	/*
+	 * Nodes of the diagram split into pages. Nodes are numbered in the order of their names, the
+	 * edges of a page are the sorted edges with at least one node on the page.
+	 */
+	private record Partition(int containersPerPage, String[] nodeNames, int[] nodePages,
+	        List<List<RepositoryComponent>> pageNodes, long[][] pageEdges,
+	        Map<CompositeComponent, List<BasicComponent>> innerComponents) {
+	}
 
-	private final Map<RepositoryComponent, RepositoryComponent> assembly;
 	private final List<BasicComponent> basicComponents;
 	private final StringBuilder buffer;
+	private final Cancellation cancellation = new Cancellation();
 	private final List<CompositeComponent> compositeComponents;
-	private final String diagramText;
+	private final List<AllocationContext> contexts;
+	private String diagramText;
+	private final AssemblyGraph graph;
 	private final String linkToSystem;
+	private final GenerationMetrics metrics = new GenerationMetrics(PcmAllocationDiagramGenerator.class);
+	private final EscapedNames names = new EscapedNames(metrics);
+	private final DiagramOptions options;
+	private Partition partition;
 
 	public PcmAllocationDiagramGenerator(final Allocation allocation) {
+		this(allocation, null);
+	}
+
+	/**
+	 * Creates the diagram of an allocation.
+	 *
+	 * @param allocation the allocation
+	 * @param graph      the assembly graph of the system of the allocation, {@code null} to create it
+	 */
+	public PcmAllocationDiagramGenerator(final Allocation allocation, final AssemblyGraph graph) {
+		this(allocation, DiagramOptions.DEFAULT, graph);
+	}
+
+	/**
+	 * Creates the diagram of an allocation. Of the options, only the short aliases and the
+	 * hyperlinks apply to allocation diagrams.
+	 *
+	 * @param allocation the allocation
+	 * @param options    the options
+	 * @param graph      the assembly graph of the system of the allocation, {@code null} to create it
+	 */
+	public PcmAllocationDiagramGenerator(final Allocation allocation, final DiagramOptions options,
+	        final AssemblyGraph graph) {
+		final long start = metrics.startPhase();
+		cancellation.begin();
+		this.options = Objects.requireNonNull(options);
 		buffer = new StringBuilder();
 
-		final List<AllocationContext> contexts = allocation.getAllocationContexts_Allocation().stream()
+		contexts = allocation.getAllocationContexts_Allocation().stream()
 		        .filter(context -> context != null)
 		        .filter(context -> context.getResourceContainer_AllocationContext() != null)
 		        .filter(context -> context.getAssemblyContext_AllocationContext() != null).toList();
-		contexts.get(0).getAllocation_AllocationContext().getSystem_Allocation()
-		        .getAssemblyContexts__ComposedStructure();
-
-		assembly = new HashMap<>();
-		contexts.stream().map(AllocationContext::getAllocation_AllocationContext).filter(a -> a != null)
-		        .map(Allocation::getSystem_Allocation).filter(s -> s != null).distinct()
-		        .map(System::getConnectors__ComposedStructure).filter(c -> c != null).flatMap(List::stream)
-		        .filter(c -> c != null).distinct().filter(AssemblyConnectorImpl.class::isInstance)
-		        .map(AssemblyConnectorImpl.class::cast).distinct().sorted(byName()).forEachOrdered(c -> {
-			        final AssemblyContext providingAssembly = c.getProvidingAssemblyContext_AssemblyConnector();
-			        final AssemblyContext requiringAssembly = c.getRequiringAssemblyContext_AssemblyConnector();
-			        if ((providingAssembly != null) && (requiringAssembly != null)) {
-				        final RepositoryComponent providingComponent = providingAssembly
-				                .getEncapsulatedComponent__AssemblyContext();
-				        final RepositoryComponent requiringComponent = requiringAssembly
-				                .getEncapsulatedComponent__AssemblyContext();
-				        if ((providingComponent != null) && (requiringComponent != null)) {
-					        assembly.put(providingComponent, requiringComponent);
-				        }
-			        }
-		        });
-
-		assembly.keySet().stream().forEach(k -> java.lang.System.out
-		        .println(escape(k.getEntityName()) + " : " + escape(assembly.get(k).getEntityName())));
+
+		this.graph = graph != null ? graph : new AssemblyGraph(allocation.getSystem_Allocation());
+		cancellation.check();
 
 		final List<RepositoryComponent> components = contexts.stream()
 		        .map(AllocationContext::getAssemblyContext_AllocationContext)
 		        .map(AssemblyContext::getEncapsulatedComponent__AssemblyContext).toList();
 
-		basicComponents = components.stream().filter(BasicComponent.class::isInstance).map(BasicComponent.class::cast)
-		        .distinct().sorted(byName()).collect(Collectors.toCollection(ArrayList::new));
-
-		compositeComponents = components.stream().filter(CompositeComponent.class::isInstance)
-		        .map(CompositeComponent.class::cast).distinct().sorted(byName()).toList();
+		basicComponents = names.sortedByName(components.stream().filter(BasicComponent.class::isInstance)
+		        .map(BasicComponent.class::cast).distinct().toList());
 
-		linkToSystem = getEObjectHyperlink(allocation.getSystem_Allocation());
+		compositeComponents = names.sortedByName(components.stream().filter(CompositeComponent.class::isInstance)
+		        .map(CompositeComponent.class::cast).distinct().toList());
 
-		diagramText = contexts.isEmpty() ? "" : getAllocationDiagramText();
+		linkToSystem = options.hyperlinks() ? getEObjectHyperlink(allocation.getSystem_Allocation()) : null;
+		metrics.stopPhase(Phase.COLLECTION, start);
 	}
 
 	// example: [Access Control] - [Web Server]
-	private void appendAssemblyConnector(final Entry<String, String> assembly) {
-		buffer.append(PcmAllocationDiagramGenerator.COMPONENT_START);
-		buffer.append(assembly.getKey());
-		buffer.append(PcmAllocationDiagramGenerator.COMPONENT_END);
+	private void appendAssemblyConnector(final String from, final String to) {
+		appendContainerReference(from);
 
 		buffer.append(PcmAllocationDiagramGenerator.PROVIDES_REQUIRES_LINK);
 
-		buffer.append(PcmAllocationDiagramGenerator.COMPONENT_START);
-		buffer.append(assembly.getValue());
-		buffer.append(PcmAllocationDiagramGenerator.COMPONENT_END);
+		appendContainerReference(to);
 		buffer.append(PcmAllocationDiagramGenerator.NEWLINE);
 	}
 
+	/*
+	 * Writes the edges between the containers of connected components.
+	 */
+	private void appendAssemblyConnectors(final Map<RepositoryComponent, String> containers, final Appendable out)
+	        throws IOException {
+		final String[] containerNames = containers.values().stream().distinct().sorted().toArray(String[]::new);
+		for (final long edge : getContainerEdges(containers, containerNames)) {
+			appendAssemblyConnector(containerNames[getSource(edge)], containerNames[getTarget(edge)]);
+			flush(out);
+		}
+	}
+
 	// example: [DataAccess]
 	private void appendComponent(final BasicComponent component) {
 		buffer.append(COMPONENT_START);
-		buffer.append(escape(component.getEntityName()));
+		buffer.append(names.escape(component.getEntityName()));
 		buffer.append(COMPONENT_END);
-		buffer.append(SPACE);
-		buffer.append(LINK_START);
-		buffer.append(linkToSystem);
-		buffer.append(LINK_END);
+		if (linkToSystem != null) {
+			buffer.append(SPACE);
+			buffer.append(LINK_START);
+			buffer.append(linkToSystem);
+			buffer.append(LINK_END);
+		}
 		buffer.append(NEWLINE);
 	}
 
@@ -119,17 +165,57 @@ public class PcmAllocationDiagramGenerator implements UmlDiagramSupplier {
 	private void appendComponentStart(final CompositeComponent component) {
 		buffer.append(COMPONENT_KEYWORD);
 		buffer.append(SPACE);
-		buffer.append(escape(component.getEntityName()));
+		buffer.append(names.escape(component.getEntityName()));
 		buffer.append(SPACE);
 		buffer.append(CURLY_OPENING_BRACKET);
 		buffer.append(NEWLINE);
 	}
 
+	private void appendContainer(final BasicComponent component) {
+		appendContainerStart(getContainerName(component));
+		appendComponent(component);
+		appendEnd();
+	}
+
+	private void appendContainer(final CompositeComponent composite, final List<BasicComponent> innerComponents) {
+		appendContainerStart(getContainerName(composite));
+		appendComponentStart(composite);
+		for (final BasicComponent basic : innerComponents) {
+			appendComponent(basic);
+		}
+		appendEnd();
+		appendEnd();
+	}
+
+	// example: System1, with short aliases "System1" as N1
+	private void appendContainerName(final String containerName) {
+		if (options.shortAliases()) {
+			buffer.append(NAME_START);
+			buffer.append(containerName);
+			buffer.append(NAME_END);
+			buffer.append(AS);
+			buffer.append(names.alias(containerName, CONTAINER_ALIAS));
+		} else {
+			buffer.append(containerName);
+		}
+	}
+
+	// example: [System1], with short aliases N1
+	private void appendContainerReference(final String containerName) {
+		if (options.shortAliases()) {
+			buffer.append(names.alias(containerName, CONTAINER_ALIAS));
+		} else {
+			buffer.append(COMPONENT_START);
+			buffer.append(containerName);
+			buffer.append(COMPONENT_END);
+		}
+	}
+
 	// example: node System1 {
 	private void appendContainerStart(final String containerName) {
 		buffer.append(CONTAINER_KEYWORD);
 		buffer.append(SPACE);
-		buffer.append(escape(containerName));
+		appendContainerName(names.escape(containerName));
 		buffer.append(SPACE);
 		buffer.append(CURLY_OPENING_BRACKET);
 		buffer.append(NEWLINE);
@@ -140,70 +226,338 @@ public class PcmAllocationDiagramGenerator implements UmlDiagramSupplier {
 		buffer.append(NEWLINE);
 	}
 
-	private boolean contains(final CompositeComponent composite, final BasicComponent basic) {
-		return composite.getAssemblyContexts__ComposedStructure().stream()
-		        .map(AssemblyContext::getEncapsulatedComponent__AssemblyContext)
-		        .anyMatch(c -> Objects.equals(c, basic));
+	private void appendSkinparams() {
+		buffer.append("skinparam fixCircleLabelOverlapping true"); // avoid overlapping of labels
+		buffer.append(NEWLINE);
+		buffer.append("skinparam componentStyle uml2"); // UML2 Style
+		buffer.append(NEWLINE);
+	}
+
+	// example: [Access Control] .. [Web Server]
+	private void appendStubConnector(final String from, final String to) {
+		appendContainerReference(from);
+		buffer.append(STUB_LINK);
+		appendContainerReference(to);
+		buffer.append(NEWLINE);
+	}
+
+	// example: node WebServer <<page 2>>
+	private void appendStubContainer(final String containerName, final int page) {
+		buffer.append(CONTAINER_KEYWORD);
+		buffer.append(SPACE);
+		appendContainerName(containerName);
+		buffer.append(SPACE);
+		buffer.append(PAGE_STUB_START);
+		buffer.append(page + 1);
+		buffer.append(PAGE_STUB_END);
+		buffer.append(NEWLINE);
+	}
+
+	// writes and clears the buffer, then checks whether the generation was cancelled
+	private void flush(final Appendable out) throws IOException {
+		out.append(buffer);
+		buffer.setLength(0);
+		cancellation.check();
 	}
 
 	@Override
-	public String get() {
+	public synchronized String get() {
+		if (diagramText == null) {
+			final StringBuilder text = new StringBuilder();
+			try {
+				writeTo(text);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			diagramText = text.toString();
+		}
 		return diagramText;
 	}
 
-	private String getAllocationDiagramText() {
-		buffer.append("skinparam fixCircleLabelOverlapping true"); // avoid overlapping of labels
-		buffer.append(NEWLINE);
-		buffer.append("skinparam componentStyle uml2"); // UML2 Style
-		buffer.append(NEWLINE);
+	/*
+	 * Returns the distinct edges between the containers of connected components, sorted by the
+	 * indices of the containers in the sorted container names. Edges within a container are left out.
+	 */
+	private long[] getContainerEdges(final Map<RepositoryComponent, String> containers,
+	        final String[] containerNames) {
+		final Map<String, Integer> containerIds = new HashMap<>();
+		for (int i = 0; i < containerNames.length; i++) {
+			containerIds.put(containerNames[i], i);
+		}
+		final int[] componentContainers = new int[graph.getComponentCount()];
+		for (int i = 0; i < componentContainers.length; i++) {
+			componentContainers[i] = containerIds.getOrDefault(containers.get(graph.getComponent(i)), -1);
+		}
 
-		final Map<RepositoryComponent, String> map = new HashMap<>();
+		final long[] edges = new long[graph.getEdgeCount()];
+		int edgeCount = 0;
+		for (int component = 0; component < componentContainers.length; component++) {
+			final int from = componentContainers[component];
+			if (from < 0) {
+				continue;
+			}
+			for (int i = graph.getEdgeStart(component); i < graph.getEdgeEnd(component); i++) {
+				final int to = componentContainers[graph.getEdgeTarget(i)];
+				if ((to >= 0) && (to != from)) {
+					edges[edgeCount++] = toEdge(from, to);
+				}
+			}
+		}
+		Arrays.sort(edges, 0, edgeCount);
 
+		int distinctCount = 0;
+		for (int i = 0; i < edgeCount; i++) {
+			if ((i == 0) || (edges[i] != edges[i - 1])) {
+				edges[distinctCount++] = edges[i];
+			}
+		}
+		return Arrays.copyOf(edges, distinctCount);
+	}
+
+	private String getContainerName(final NamedElement entity) {
+		return CONTAINER_KEYWORD + names.escape(entity.getEntityName());
+	}
+
+	// The containers of the components that are drawn inside of other containers
+	private Map<RepositoryComponent, String> getContainers(
+	        final Map<CompositeComponent, List<BasicComponent>> innerComponents,
+	        final List<BasicComponent> freeComponents) {
+		final Map<RepositoryComponent, String> containers = new HashMap<>();
 		for (final CompositeComponent composite : compositeComponents) {
 			final String container = getContainerName(composite);
-			appendContainerStart(container);
-			appendComponentStart(composite);
-			final List<BasicComponent> done = new ArrayList<>();
-			for (final BasicComponent basic : basicComponents) {
-				if (contains(composite, basic)) {
-					appendComponent(basic);
-					map.put(basic, container);
-					done.add(basic);
+			for (final BasicComponent basic : innerComponents.getOrDefault(composite, List.of())) {
+				containers.put(basic, container);
+			}
+		}
+		for (final BasicComponent component : freeComponents) {
+			containers.put(component, getContainerName(component));
+		}
+		return containers;
+	}
+
+	/**
+	 * Splits the diagram into pages for allocations on many resource containers. Every page shows
+	 * the components allocated on a group of resource containers, the groups follow the order of the
+	 * container names. A component allocated on several containers is shown on the page of the first
+	 * one. Connections to components on other pages are drawn as dotted links to stub nodes, which
+	 * name the page of the component.
+	 *
+	 * The pages are generated lazily, when the text of a page is requested. The split is kept for
+	 * further requests of the same page size.
+	 *
+	 * @param containersPerPage the maximum number of resource containers per page
+	 * @return the pages, none if the allocation is empty
+	 */
+	public synchronized Iterator<UmlDiagramSupplier> getPages(final int containersPerPage) {
+		if (containersPerPage < 1) {
+			throw new IllegalArgumentException("containersPerPage must be positive: " + containersPerPage);
+		}
+		if (!contexts.isEmpty() && ((partition == null) || (partition.containersPerPage() != containersPerPage))) {
+			partition = partition(containersPerPage);
+		}
+		final Partition pages = contexts.isEmpty() ? null : partition;
+		final int pageCount = pages == null ? 0 : pages.pageNodes().size();
+		return new Iterator<>() {
+			private int page;
+
+			@Override
+			public boolean hasNext() {
+				return page < pageCount;
+			}
+
+			@Override
+			public UmlDiagramSupplier next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final int index = page++;
+				return () -> {
+					final StringBuilder text = new StringBuilder();
+					try {
+						writePage(pages, index, text);
+					} catch (final IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					return text.toString();
+				};
+			}
+		};
+	}
+
+	/*
+	 * Groups the basic components by the first composite component that contains them. Basic
+	 * components that are not contained in a composite component are added to the free components.
+	 * Both keep the order by name.
+	 */
+	private void groupComponents(final Map<CompositeComponent, List<BasicComponent>> innerComponents,
+	        final List<BasicComponent> freeComponents) {
+		final Map<RepositoryComponent, CompositeComponent> parents = new HashMap<>();
+		for (final CompositeComponent composite : compositeComponents) {
+			for (final AssemblyContext context : composite.getAssemblyContexts__ComposedStructure()) {
+				final RepositoryComponent component = context.getEncapsulatedComponent__AssemblyContext();
+				if (component != null) {
+					parents.putIfAbsent(component, composite);
 				}
 			}
-			basicComponents.removeAll(done);
-			appendEnd();
-			appendEnd();
 		}
 
 		for (final BasicComponent component : basicComponents) {
-			final String container = getContainerName(component);
-			appendContainerStart(container);
-			appendComponent(component);
-			map.put(component, container);
-			appendEnd();
+			final CompositeComponent parent = parents.get(component);
+			if (parent == null) {
+				freeComponents.add(component);
+			} else {
+				innerComponents.computeIfAbsent(parent, x -> new ArrayList<>()).add(component);
+			}
 		}
+	}
 
-		final Set<Entry<String, String>> set = new HashSet<>();
+	/*
+	 * Assigns every container of the diagram to the page of the first resource container it is
+	 * allocated on and every edge to the pages of its containers.
+	 */
+	private Partition partition(final int containersPerPage) {
+		final Map<CompositeComponent, List<BasicComponent>> innerComponents = new HashMap<>();
+		final List<BasicComponent> freeComponents = new ArrayList<>();
+		groupComponents(innerComponents, freeComponents);
+		final Map<RepositoryComponent, String> containers = getContainers(innerComponents, freeComponents);
+
+		final Map<String, List<ResourceContainer>> hosts = new HashMap<>();
+		for (final AllocationContext context : contexts) {
+			final RepositoryComponent component = context.getAssemblyContext_AllocationContext()
+			        .getEncapsulatedComponent__AssemblyContext();
+			final String container = component instanceof final CompositeComponent composite
+			        ? getContainerName(composite)
+			        : containers.get(component);
+			if (container != null) {
+				hosts.computeIfAbsent(container, x -> new ArrayList<>())
+				        .add(context.getResourceContainer_AllocationContext());
+			}
+		}
+		final List<ResourceContainer> resourceContainers = names.sortedByName(
+		        hosts.values().stream().flatMap(List::stream).distinct().toList());
+		final Map<ResourceContainer, Integer> containerPages = new HashMap<>();
+		for (int i = 0; i < resourceContainers.size(); i++) {
+			containerPages.put(resourceContainers.get(i), i / containersPerPage);
+		}
+		final int pageCount = ((resourceContainers.size() + containersPerPage) - 1) / containersPerPage;
+
+		final String[] nodeNames = hosts.keySet().stream().sorted().toArray(String[]::new);
+		final int[] nodePages = new int[nodeNames.length];
+		final Map<String, Integer> pagesByName = new HashMap<>();
+		for (int i = 0; i < nodeNames.length; i++) {
+			nodePages[i] = hosts.get(nodeNames[i]).stream().mapToInt(containerPages::get).min().orElseThrow();
+			pagesByName.put(nodeNames[i], nodePages[i]);
+		}
 
-		for (final RepositoryComponent component : assembly.keySet()) {
-			final String from = map.get(component);
-			final String to = map.get(assembly.get(component));
-			if ((from == null) || (to == null) || from.equals(to)) {
-				continue;
+		final List<List<RepositoryComponent>> pageNodes = new ArrayList<>();
+		for (int i = 0; i < pageCount; i++) {
+			pageNodes.add(new ArrayList<>());
+		}
+		for (final CompositeComponent composite : compositeComponents) {
+			pageNodes.get(pagesByName.get(getContainerName(composite))).add(composite);
+		}
+		for (final BasicComponent component : freeComponents) {
+			pageNodes.get(pagesByName.get(getContainerName(component))).add(component);
+		}
+
+		final LongStream.Builder[] edges = new LongStream.Builder[pageCount];
+		for (int i = 0; i < pageCount; i++) {
+			edges[i] = LongStream.builder();
+		}
+		for (final long edge : getContainerEdges(containers, nodeNames)) {
+			final int sourcePage = nodePages[getSource(edge)];
+			final int targetPage = nodePages[getTarget(edge)];
+			edges[sourcePage].add(edge);
+			if (targetPage != sourcePage) {
+				edges[targetPage].add(edge);
 			}
-			set.add(Map.entry(from, to));
 		}
+		final long[][] pageEdges = new long[pageCount][];
+		for (int i = 0; i < pageCount; i++) {
+			pageEdges[i] = edges[i].build().toArray();
+		}
+		return new Partition(containersPerPage, nodeNames, nodePages, pageNodes, pageEdges, innerComponents);
+	}
 
-		set.stream().distinct()
-		        .sorted((o1, o2) -> (o1.getKey() + o1.getValue()).compareTo((o2.getKey() + o2.getValue())))
-		        .forEachOrdered(this::appendAssemblyConnector);
+	private void writeDiagramText(final Appendable out) throws IOException {
+		appendSkinparams();
+		flush(out);
 
-		return buffer.toString();
+		final Map<CompositeComponent, List<BasicComponent>> innerComponents = new HashMap<>();
+		final List<BasicComponent> basicComponents = new ArrayList<>();
+		groupComponents(innerComponents, basicComponents);
+
+		for (final CompositeComponent composite : compositeComponents) {
+			appendContainer(composite, innerComponents.getOrDefault(composite, List.of()));
+			flush(out);
+		}
+
+		for (final BasicComponent component : basicComponents) {
+			appendContainer(component);
+			flush(out);
+		}
+
+		appendAssemblyConnectors(getContainers(innerComponents, basicComponents), out);
 	}
 
-	private String getContainerName(final NamedElement entity) {
-		return CONTAINER_KEYWORD + escape(entity.getEntityName());
+	private synchronized void writePage(final Partition partition, final int page, final Appendable out)
+	        throws IOException {
+		cancellation.begin();
+		appendSkinparams();
+		flush(out);
+
+		for (final RepositoryComponent component : partition.pageNodes().get(page)) {
+			if (component instanceof final CompositeComponent composite) {
+				appendContainer(composite, partition.innerComponents().getOrDefault(composite, List.of()));
+			} else {
+				appendContainer((BasicComponent) component);
+			}
+			flush(out);
+		}
+
+		// Stubs of the containers on other pages, in the order of their names
+		final String[] nodeNames = partition.nodeNames();
+		final int[] nodePages = partition.nodePages();
+		final boolean[] stubs = new boolean[nodeNames.length];
+		for (final long edge : partition.pageEdges()[page]) {
+			stubs[getSource(edge)] |= nodePages[getSource(edge)] != page;
+			stubs[getTarget(edge)] |= nodePages[getTarget(edge)] != page;
+		}
+		for (int i = 0; i < stubs.length; i++) {
+			if (stubs[i]) {
+				appendStubContainer(nodeNames[i], nodePages[i]);
+				flush(out);
+			}
+		}
+
+		for (final long edge : partition.pageEdges()[page]) {
+			final String from = nodeNames[getSource(edge)];
+			final String to = nodeNames[getTarget(edge)];
+			if (stubs[getSource(edge)] || stubs[getTarget(edge)]) {
+				appendStubConnector(from, to);
+			} else {
+				appendAssemblyConnector(from, to);
+			}
+			flush(out);
+		}
+	}
+
+	@Override
+	public synchronized void writeTo(final Appendable out) throws IOException {
+		if (diagramText != null) {
+			out.append(diagramText);
+			return;
+		}
+		if (contexts.isEmpty()) {
+			return;
+		}
+
+		final long start = metrics.startPhase();
+		cancellation.begin();
+		final Appendable counted = metrics.count(out);
+		writeDiagramText(counted);
+		metrics.stopPhase(Phase.EMISSION, start);
+		metrics.generated(contexts.size() + graph.getEdgeCount(), counted);
 	}
 
 }
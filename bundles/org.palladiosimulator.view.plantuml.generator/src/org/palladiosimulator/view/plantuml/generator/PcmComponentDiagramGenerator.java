@@ -1,20 +1,21 @@
 package org.palladiosimulator.view.plantuml.generator;
 
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.byName;
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.escape;
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import org.eclipse.emf.common.util.ECollections;
-import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
 import org.palladiosimulator.pcm.core.composition.AssemblyContext;
 import org.palladiosimulator.pcm.core.composition.ProvidedDelegationConnector;
@@ -22,7 +23,6 @@ import org.palladiosimulator.pcm.core.composition.RequiredDelegationConnector;
 import org.palladiosimulator.pcm.repository.BasicComponent;
 import org.palladiosimulator.pcm.repository.CompositeComponent;
 import org.palladiosimulator.pcm.repository.Interface;
-import org.palladiosimulator.pcm.repository.OperationInterface;
 import org.palladiosimulator.pcm.repository.OperationProvidedRole;
 import org.palladiosimulator.pcm.repository.OperationRequiredRole;
 import org.palladiosimulator.pcm.repository.ProvidedRole;
@@ -30,7 +30,15 @@ import org.palladiosimulator.pcm.repository.Repository;
 import org.palladiosimulator.pcm.repository.RepositoryComponent;
 import org.palladiosimulator.pcm.repository.RequiredRole;
 import org.palladiosimulator.pcm.repository.Role;
-
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
+
+/**
+ * Generates the component diagram of a repository. The components and their roles are collected
+ * and sorted when the generator is created, the fragments of the components are rendered from the
+ * model when the text is generated. Therefore the repository must not change until the text was
+ * generated. Changes are handled by a new generator, which takes the unaffected fragments from
+ * this one.
+ */
 public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
 
     private static final String COMPONENT_START = "[", COMPONENT_END = "]";
@@ -40,90 +48,165 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
     private static final String COMPOSITE_TITLE_SPACER = "\\n\\n\\n\\n\\n\\n";
     private static final String INPORT_DECLARATION = "portin \" \" as ";
     private static final String INPORT_DELIMITER = ".requires.";
+    private static final String INTERFACE_ALIAS = "I";
+    private static final String INTERFACE_PREFIX = "interface.";
     private static final String NAME_START = "\"", NAME_END = "\"";
     private static final String NEWLINE = "\n";
     private static final String OUTPORT_DECLARATION = "portout \" \" as ";
     private static final String OUTPORT_DELIMITER = ".provides.";
+    private static final int PARALLEL_THRESHOLD = 128;
+    private static final String PORT_ALIAS = "P";
     private static final String REQUIRES_LABEL = " : requires";
     private static final String SIMPLE_LINK = "--", REQUIRES_LINK = "..>", INTERNAL_REQUIRES_LINK = "..";
 
-    private static void appendComponent(final BasicComponent component, final StringBuilder buffer) {
-        buffer.append(COMPONENT_START);
-        buffer.append(escape(component.getEntityName()));
-        buffer.append(COMPONENT_END);
+    private static <T extends EObject> T getContainer(final EObject object, final Class<T> type) {
+        for (EObject current = object; current != null; current = current.eContainer()) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+        }
+        return null;
     }
 
-    private static void appendConnector(final AssemblyConnector connector, final StringBuilder buffer) {
-        final AssemblyContext requiringContext = connector.getRequiringAssemblyContext_AssemblyConnector();
-        final AssemblyContext providingContext = connector.getProvidingAssemblyContext_AssemblyConnector();
-
-        // TODO: Currently assumes non-nested components.
-        PcmComponentDiagramGenerator
-            .appendComponent((BasicComponent) requiringContext.getEncapsulatedComponent__AssemblyContext(), buffer);
-        buffer.append(REQUIRES_LINK);
-        PcmComponentDiagramGenerator
-            .appendComponent((BasicComponent) providingContext.getEncapsulatedComponent__AssemblyContext(), buffer);
-        buffer.append(REQUIRES_LABEL);
-        buffer.append(NEWLINE);
+    private static Interface getReferencedInterface(final Role role) {
+        if (role instanceof final OperationProvidedRole provRole) {
+            return provRole.getProvidedInterface__OperationProvidedRole();
+        }
+        if (role instanceof final OperationRequiredRole reqRole) {
+            return reqRole.getRequiredInterface__OperationRequiredRole();
+        }
+        return null;
     }
 
     private final List<BasicComponent> basicComponents = new ArrayList<>();
+    private final Cancellation cancellation = new Cancellation();
     private final Set<String> componentNames = new HashSet<>();
     private final List<CompositeComponent> compositeComponents = new ArrayList<>();
-    private final String diagramText;
-    private final List<OperationInterface> ifaces = new ArrayList<>();
+    private String diagramText;
+    private int edgeCount;
+    private final Map<RepositoryComponent, String> fragments = new HashMap<>();
     private final Set<RepositoryComponent> innerComponents = new HashSet<>();
     private final Map<CompositeComponent, Map<Role, String>> inPorts = new HashMap<>();
+    private final Map<Role, Interface> interfacesByRole = new HashMap<>();
+    private final GenerationMetrics metrics = new GenerationMetrics(PcmComponentDiagramGenerator.class);
+    private final EscapedNames names = new EscapedNames(metrics);
+
+    private int nodeCount;
+
+    private final DiagramOptions options;
 
     private final Map<CompositeComponent, Map<Role, String>> outPorts = new HashMap<>();
 
-    private final Map<RepositoryComponent, EList<ProvidedRole>> providedRoles = new HashMap<>();
+    private final Map<RepositoryComponent, Set<CompositeComponent>> parentComponents = new HashMap<>();
 
-    private final Map<RepositoryComponent, EList<RequiredRole>> requiredRoles = new HashMap<>();
+    private final Map<RepositoryComponent, List<ProvidedRole>> providedRoles = new HashMap<>();
+
+    private final Map<RepositoryComponent, List<RequiredRole>> requiredRoles = new HashMap<>();
+
+    private final Map<RepositoryComponent, String> reusableFragments = new HashMap<>();
 
     public PcmComponentDiagramGenerator(final Repository repository) {
-        diagramText = generateDiagramText(Objects.requireNonNull(repository));
+        this(repository, null, Set.of(), DiagramOptions.DEFAULT);
+    }
+
+    /**
+     * Creates the component diagram of a repository that was changed since the previous diagram was
+     * generated. The diagram fragments of all components that are not affected by the changes are
+     * taken from the previous diagram.
+     *
+     * @param repository the repository
+     * @param previous   the previous diagram of the repository, may be {@code null}
+     * @param changes    the model elements that were changed since the previous diagram was generated
+     */
+    public PcmComponentDiagramGenerator(final Repository repository, final PcmComponentDiagramGenerator previous,
+            final Collection<? extends EObject> changes) {
+        this(repository, previous, changes, DiagramOptions.DEFAULT);
+    }
+
+    /**
+     * Creates the component diagram of a repository that was changed since the previous diagram was
+     * generated. If parallel generation is enabled, the fragments of repositories with many
+     * components are rendered on the common fork join pool. The diagram text is the same either way.
+     *
+     * If the repository exceeds the element budget, composite components are collapsed into single
+     * nodes and the interfaces are summarized by dependencies between the components that require
+     * and provide them.
+     *
+     * With short aliases, interfaces and ports are referred to by aliases like {@code I1} and
+     * {@code P1}.
+     *
+     * @param repository the repository
+     * @param previous   the previous diagram of the repository, may be {@code null}
+     * @param changes    the model elements that were changed since the previous diagram was generated
+     * @param options    the options
+     */
+    public PcmComponentDiagramGenerator(final Repository repository, final PcmComponentDiagramGenerator previous,
+            final Collection<? extends EObject> changes, final DiagramOptions options) {
+        final long start = metrics.startPhase();
+        cancellation.begin();
+        this.options = Objects.requireNonNull(options);
+        collectComponents(Objects.requireNonNull(repository));
+
+        /*
+         * Fragments can only be reused if the implicit interfaces did not change. Short aliases are
+         * numbered per diagram, so their fragments are never reused.
+         */
+        if ((previous != null) && previous.componentNames.equals(componentNames) && !options.shortAliases()
+                && !previous.options.shortAliases()) {
+            final Set<RepositoryComponent> affectedComponents = getAffectedComponents(repository,
+                    Objects.requireNonNull(changes));
+            if (affectedComponents != null) {
+                synchronized (previous) {
+                    previous.fragments.forEach((component, fragment) -> {
+                        if (!affectedComponents.contains(component)) {
+                            reusableFragments.put(component, fragment);
+                        }
+                    });
+                }
+            }
+        }
+        metrics.stopPhase(Phase.COLLECTION, start);
     }
 
     private void addInnerComponents(final CompositeComponent component) {
+        final Set<ProvidedRole> connectedProvisions = component.getConnectors__ComposedStructure()
+            .stream()
+            .filter(AssemblyConnector.class::isInstance)
+            .map(AssemblyConnector.class::cast)
+            .map(AssemblyConnector::getProvidedRole_AssemblyConnector)
+            .collect(Collectors.toSet());
+
+        final Set<RequiredRole> connectedRequirements = component.getConnectors__ComposedStructure()
+            .stream()
+            .filter(AssemblyConnector.class::isInstance)
+            .map(AssemblyConnector.class::cast)
+            .map(AssemblyConnector::getRequiredRole_AssemblyConnector)
+            .collect(Collectors.toSet());
+
         for (final AssemblyContext assemblyContext : component.getAssemblyContexts__ComposedStructure()) {
             final RepositoryComponent innerComponent = assemblyContext.getEncapsulatedComponent__AssemblyContext();
 
-            final Set<ProvidedRole> connectedProvisions = component.getConnectors__ComposedStructure()
-                .stream()
-                .filter(AssemblyConnector.class::isInstance)
-                .map(AssemblyConnector.class::cast)
-                .map(AssemblyConnector::getProvidedRole_AssemblyConnector)
-                .sorted((a, b) -> escape(a.getProvidedInterface__OperationProvidedRole()
-                    .getEntityName()).compareTo(escape(
-                            b.getProvidedInterface__OperationProvidedRole()
-                                .getEntityName())))
-                .collect(Collectors.toSet());
-
-            final Set<RequiredRole> connectedRequirements = component.getConnectors__ComposedStructure()
-                .stream()
-                .filter(AssemblyConnector.class::isInstance)
-                .map(AssemblyConnector.class::cast)
-                .map(AssemblyConnector::getRequiredRole_AssemblyConnector)
-                .sorted((a, b) -> escape(a.getRequiredInterface__OperationRequiredRole()
-                    .getEntityName()).compareTo(escape(
-                            b.getRequiredInterface__OperationRequiredRole()
-                                .getEntityName())))
-                .collect(Collectors.toSet());
-
-            final EList<ProvidedRole> innerProvisions = innerComponent.getProvidedRoles_InterfaceProvidingEntity();
+            // Filter copies, the model must not be changed by the generation
+            final List<ProvidedRole> innerProvisions = new ArrayList<>(
+                    innerComponent.getProvidedRoles_InterfaceProvidingEntity());
             innerProvisions.removeAll(connectedProvisions);
-            ECollections.sort(innerProvisions, byName());
 
-            final EList<RequiredRole> innerRequirements = innerComponent.getRequiredRoles_InterfaceRequiringEntity();
+            final List<RequiredRole> innerRequirements = new ArrayList<>(
+                    innerComponent.getRequiredRoles_InterfaceRequiringEntity());
             innerRequirements.removeAll(connectedRequirements);
-            ECollections.sort(innerRequirements, byName());
 
-            providedRoles.put(innerComponent, innerProvisions);
-            requiredRoles.put(innerComponent, innerRequirements);
+            // Nested composites keep their own roles, even when they are prepared first
+            providedRoles.putIfAbsent(innerComponent, names.sortedByName(innerProvisions));
+            requiredRoles.putIfAbsent(innerComponent, names.sortedByName(innerRequirements));
         }
     }
 
+    private void appendComponent(final BasicComponent component, final StringBuilder buffer) {
+        buffer.append(COMPONENT_START);
+        buffer.append(names.identifier(component));
+        buffer.append(COMPONENT_END);
+    }
+
     private void appendComponent(final CompositeComponent component, final StringBuilder buffer) {
         buffer.append(COMPOSITE_COMPONENT_START);
         buffer.append(component.getEntityName());
@@ -153,27 +236,39 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
                 buffer.append(x);
                 buffer.append(NEWLINE);
             });
-        component.getConnectors__ComposedStructure()
+        names.sortedByName(component.getConnectors__ComposedStructure()
             .stream()
             .filter(AssemblyConnector.class::isInstance)
             .map(AssemblyConnector.class::cast)
-            .sorted(byName())
+            .toList())
             .forEach(x -> appendConnector(x, buffer));
-        component.getConnectors__ComposedStructure()
+        names.sortedByName(component.getConnectors__ComposedStructure()
             .stream()
             .filter(ProvidedDelegationConnector.class::isInstance)
             .map(ProvidedDelegationConnector.class::cast)
-            .sorted(byName())
+            .toList())
             .forEach(x -> appendDelegation(component, x, buffer));
-        component.getConnectors__ComposedStructure()
+        names.sortedByName(component.getConnectors__ComposedStructure()
             .stream()
             .filter(RequiredDelegationConnector.class::isInstance)
             .map(RequiredDelegationConnector.class::cast)
-            .sorted(byName())
+            .toList())
             .forEach(x -> appendDelegation(component, x, buffer));
         buffer.append(COMPOSITE_BLOCK_END);
     }
 
+    private void appendConnector(final AssemblyConnector connector, final StringBuilder buffer) {
+        final AssemblyContext requiringContext = connector.getRequiringAssemblyContext_AssemblyConnector();
+        final AssemblyContext providingContext = connector.getProvidingAssemblyContext_AssemblyConnector();
+
+        // TODO: Currently assumes non-nested components.
+        appendComponent((BasicComponent) requiringContext.getEncapsulatedComponent__AssemblyContext(), buffer);
+        buffer.append(REQUIRES_LINK);
+        appendComponent((BasicComponent) providingContext.getEncapsulatedComponent__AssemblyContext(), buffer);
+        buffer.append(REQUIRES_LABEL);
+        buffer.append(NEWLINE);
+    }
+
     private void appendDelegation(final CompositeComponent parent, final ProvidedDelegationConnector delegation,
             final StringBuilder buffer) {
         final AssemblyContext providingContext = delegation.getAssemblyContext_ProvidedDelegationConnector();
@@ -185,8 +280,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
         buffer.append(portName);
         buffer.append(NAME_END);
         buffer.append(SIMPLE_LINK);
-        PcmComponentDiagramGenerator
-            .appendComponent((BasicComponent) providingContext.getEncapsulatedComponent__AssemblyContext(), buffer);
+        appendComponent((BasicComponent) providingContext.getEncapsulatedComponent__AssemblyContext(), buffer);
         buffer.append(NEWLINE);
     }
 
@@ -197,8 +291,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
             .get(delegation.getOuterRequiredRole_RequiredDelegationConnector());
 
         // TODO: Currently assumes non-nested components.
-        PcmComponentDiagramGenerator
-            .appendComponent((BasicComponent) requiringContext.getEncapsulatedComponent__AssemblyContext(), buffer);
+        appendComponent((BasicComponent) requiringContext.getEncapsulatedComponent__AssemblyContext(), buffer);
         buffer.append(INTERNAL_REQUIRES_LINK);
         buffer.append(NAME_START);
         buffer.append(portName);
@@ -206,28 +299,15 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
         buffer.append(NEWLINE);
     }
 
-    private String appendIface(final Role role, final StringBuilder buffer) {
-        final String ifaceName = getIFaceByRef(role).getEntityName();
-        final String ifaceIdentifier = "interface." + escape(ifaceName);
-        buffer.append("interface ");
-        buffer.append(NAME_START);
-        buffer.append(ifaceName);
-        buffer.append(NAME_END);
-        buffer.append(" as ");
-        buffer.append(ifaceIdentifier);
-        buffer.append(NEWLINE);
-        return ifaceIdentifier;
-    }
-
     private void appendProvIfaces(final BasicComponent component, final StringBuilder buffer) {
         for (final ProvidedRole provRole : providedRoles.get(component)) {
-            final String ifaceName = escape(getIFaceByRef(provRole).getEntityName());
+            final String ifaceName = names.escape(getIFaceByRef(provRole).getEntityName());
             // Do not draw implicit interfaces.
             if (componentNames.contains(ifaceName)) {
                 continue;
             }
 
-            final String ifaceIdentifier = appendIface(provRole, buffer);
+            final String ifaceIdentifier = getIfaceIdentifier(provRole);
 
             buffer.append(ifaceIdentifier);
             buffer.append(SIMPLE_LINK);
@@ -240,7 +320,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
         for (final ProvidedRole provRole : providedRoles.get(component)) {
             final String portName = inPorts.get(component)
                 .get(provRole);
-            final String ifaceIdentifier = appendIface(provRole, buffer);
+            final String ifaceIdentifier = getIfaceIdentifier(provRole);
 
             buffer.append(ifaceIdentifier);
             buffer.append(SIMPLE_LINK);
@@ -255,7 +335,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
     private void appendReqIfaces(final BasicComponent component, final StringBuilder buffer) {
         for (final RequiredRole reqRole : requiredRoles.get(component)) {
             // Refer directly to the component for implicit interfaces.
-            final String ifaceName = escape(getIFaceByRef(reqRole).getEntityName());
+            final String ifaceName = names.escape(getIFaceByRef(reqRole).getEntityName());
             if (componentNames.contains(ifaceName)) {
                 appendComponent(component, buffer);
                 buffer.append(REQUIRES_LINK);
@@ -263,7 +343,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
                 buffer.append(ifaceName);
                 buffer.append(COMPONENT_END);
             } else {
-                final String ifaceIdentifier = appendIface(reqRole, buffer);
+                final String ifaceIdentifier = getIfaceIdentifier(reqRole);
                 appendComponent(component, buffer);
                 buffer.append(REQUIRES_LINK);
                 buffer.append(ifaceIdentifier);
@@ -278,7 +358,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
         for (final RequiredRole reqRole : requiredRoles.get(component)) {
             final String portName = outPorts.get(component)
                 .get(reqRole);
-            final String ifaceName = escape(getIFaceByRef(reqRole).getEntityName());
+            final String ifaceName = names.escape(getIFaceByRef(reqRole).getEntityName());
 
             if (componentNames.contains(ifaceName)) {
                 buffer.append(NAME_START);
@@ -289,7 +369,7 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
                 buffer.append(ifaceName);
                 buffer.append(COMPONENT_END);
             } else {
-                final String ifaceIdentifier = appendIface(reqRole, buffer);
+                final String ifaceIdentifier = getIfaceIdentifier(reqRole);
                 buffer.append(NAME_START);
                 buffer.append(portName);
                 buffer.append(NAME_END);
@@ -301,143 +381,430 @@ public class PcmComponentDiagramGenerator implements UmlDiagramSupplier {
         }
     }
 
+    private void collectComponents(final Repository repository) {
+        // Find inner components
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            cancellation.check();
+            if (component instanceof final CompositeComponent comp) {
+                for (final AssemblyContext assemblyContext : comp.getAssemblyContexts__ComposedStructure()) {
+                    final RepositoryComponent innerComponent = assemblyContext
+                        .getEncapsulatedComponent__AssemblyContext();
+                    innerComponents.add(innerComponent);
+                    parentComponents.computeIfAbsent(innerComponent, x -> new HashSet<>())
+                        .add(comp);
+                }
+            }
+        }
+
+        // Detect free components
+        final List<BasicComponent> freeComponents = new ArrayList<>();
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            if (innerComponents.contains(component)) {
+                continue;
+            }
+            if (component instanceof BasicComponent) {
+                freeComponents.add((BasicComponent) component);
+            }
+        }
+
+        // Detect composite components
+        final List<CompositeComponent> composites = new ArrayList<>();
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            if (component instanceof final CompositeComponent comp) {
+                composites.add(comp);
+            }
+        }
+
+        compositeComponents.addAll(names.sortedByName(composites));
+        basicComponents.addAll(names.sortedByName(freeComponents));
+
+        // Size of the diagram at full detail
+        nodeCount = repository.getInterfaces__Repository()
+            .size();
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            nodeCount++;
+            edgeCount += component.getProvidedRoles_InterfaceProvidingEntity()
+                .size();
+            edgeCount += component.getRequiredRoles_InterfaceRequiringEntity()
+                .size();
+            if (component instanceof final CompositeComponent comp) {
+                edgeCount += comp.getConnectors__ComposedStructure()
+                    .size();
+            }
+        }
+
+        basicComponents.forEach(x -> componentNames.add(names.identifier(x)));
+        compositeComponents.forEach(x -> componentNames.add(names.identifier(x)));
+        innerComponents.forEach(x -> componentNames.add(names.identifier(x)));
+    }
+
     private void createPorts(final CompositeComponent component) {
         final HashMap<Role, String> inPortNames = new HashMap<>();
-        for (final ProvidedRole role : providedRoles.getOrDefault(component, ECollections.asEList())) {
+        for (final ProvidedRole role : providedRoles.getOrDefault(component, List.of())) {
             if (role instanceof OperationProvidedRole) {
                 final String interfaceName = ((OperationProvidedRole) role)
                     .getProvidedInterface__OperationProvidedRole()
                     .getEntityName();
                 final String componentName = component.getEntityName();
                 final String name = componentName + INPORT_DELIMITER + interfaceName;
-                inPortNames.put(role, escape(name));
+                inPortNames.put(role, getPortIdentifier(role, name));
             }
         }
         inPorts.put(component, inPortNames);
 
         final HashMap<Role, String> outPortNames = new HashMap<>();
-        for (final RequiredRole role : requiredRoles.getOrDefault(component, ECollections.asEList())) {
+        for (final RequiredRole role : requiredRoles.getOrDefault(component, List.of())) {
             if (role instanceof OperationRequiredRole) {
                 final String interfaceName = ((OperationRequiredRole) role)
                     .getRequiredInterface__OperationRequiredRole()
                     .getEntityName();
                 final String componentName = component.getEntityName();
                 final String name = componentName + OUTPORT_DELIMITER + interfaceName;
-                outPortNames.put(role, escape(name));
+                outPortNames.put(role, getPortIdentifier(role, name));
             }
         }
         outPorts.put(component, outPortNames);
     }
 
-    private String generateDiagramText(final Repository repository) {
-        // Find inner components
-        for (final RepositoryComponent component : repository.getComponents__Repository()) {
-            if (component instanceof final CompositeComponent comp) {
-                for (final AssemblyContext assemblyContext : comp.getAssemblyContexts__ComposedStructure()) {
-                    final RepositoryComponent innerComponent = assemblyContext
-                        .getEncapsulatedComponent__AssemblyContext();
-                    innerComponents.add(innerComponent);
-                }
+    @Override
+    public synchronized String get() {
+        if ((diagramText == null) && !isEmpty()) {
+            final StringBuilder buffer = new StringBuilder();
+            try {
+                writeComponentDiagramText(buffer, true);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
             }
+            diagramText = buffer.toString();
         }
+        return diagramText;
+    }
 
-        // Detect free components
-        for (final RepositoryComponent component : repository.getComponents__Repository()) {
-            if (innerComponents.contains(component)) {
-                continue;
-            }
-            if (component instanceof BasicComponent) {
-                basicComponents.add((BasicComponent) component);
-                providedRoles.put(component, component.getProvidedRoles_InterfaceProvidingEntity());
-                ECollections.sort(providedRoles.get(component), byName());
-                requiredRoles.put(component, component.getRequiredRoles_InterfaceRequiringEntity());
-                ECollections.sort(requiredRoles.get(component), byName());
+    private Set<RepositoryComponent> getAffectedComponents(final Repository repository,
+            final Collection<? extends EObject> changes) {
+        final Set<RepositoryComponent> affectedComponents = new HashSet<>();
+        for (final EObject change : changes) {
+            final RepositoryComponent component = getContainer(change, RepositoryComponent.class);
+            if (component != null) {
+                affectedComponents.add(component);
+                affectedComponents.addAll(parentComponents.getOrDefault(component, Set.of()));
+            } else if (EcoreUtil.isAncestor(repository, change) || (getContainer(change, Interface.class) != null)) {
+                // The change is not local to a component, e.g. a renamed interface.
+                return null;
             }
         }
+        return affectedComponents;
+    }
 
-        // Detect composite components and their inner components
-        for (final RepositoryComponent component : repository.getComponents__Repository()) {
-            if (component instanceof final CompositeComponent comp) {
-                compositeComponents.add(comp);
-                addInnerComponents(comp);
-                providedRoles.put(component, comp.getProvidedRoles_InterfaceProvidingEntity());
-                ECollections.sort(providedRoles.get(component), byName());
-                requiredRoles.put(component, comp.getRequiredRoles_InterfaceRequiringEntity());
-                ECollections.sort(requiredRoles.get(component), byName());
-                createPorts(comp);
-            }
+    private String getFragment(final RepositoryComponent component, final boolean keepFragments) {
+        String fragment = reusableFragments.get(component);
+        if (fragment == null) {
+            prepareComponent(component);
+            fragment = renderFragment(component);
+        }
+        if (keepFragments) {
+            fragments.put(component, fragment);
         }
+        return fragment;
+    }
+
+    /*
+     * Only reads the index, because the fragments may be rendered in parallel. Roles of components
+     * that were not prepared, e.g. of reused fragments, are looked up in the model.
+     */
+    private Interface getIFaceByRef(final Role role) {
+        final Interface iface = interfacesByRole.get(role);
+        return iface != null ? iface : getReferencedInterface(role);
+    }
 
-        compositeComponents.sort(byName());
-        basicComponents.sort(byName());
+    private String getIfaceIdentifier(final Interface iface) {
+        final String identifier = names.identifier(iface, INTERFACE_PREFIX, iface.getEntityName());
+        return options.shortAliases() ? names.alias(identifier, INTERFACE_ALIAS) : identifier;
+    }
 
-        basicComponents.forEach(x -> componentNames.add(escape(x.getEntityName())));
-        compositeComponents.forEach(x -> componentNames.add(escape(x.getEntityName())));
-        innerComponents.forEach(x -> componentNames.add(escape(x.getEntityName())));
+    private String getIfaceIdentifier(final Role role) {
+        return getIfaceIdentifier(getIFaceByRef(role));
+    }
 
-        for (final Interface iface : repository.getInterfaces__Repository()) {
-            ifaces.add((OperationInterface) iface);
-        }
+    private String getPortIdentifier(final Role role, final String name) {
+        final String identifier = names.identifier(role, "", name);
+        return options.shortAliases() ? names.alias(identifier, PORT_ALIAS) : identifier;
+    }
 
-        ifaces.sort(byName());
+    private void indexInterface(final Role role) {
+        final Interface iface = interfacesByRole.computeIfAbsent(role,
+                PcmComponentDiagramGenerator::getReferencedInterface);
+        if (iface != null) {
+            // Build the identifier before the fragments are rendered
+            names.identifier(iface, INTERFACE_PREFIX, iface.getEntityName());
+        }
+    }
 
-        if (compositeComponents.isEmpty() && basicComponents.isEmpty()) {
-            return null;
+    private void indexInterfaces(final RepositoryComponent component) {
+        for (final ProvidedRole role : component.getProvidedRoles_InterfaceProvidingEntity()) {
+            indexInterface(role);
         }
+        for (final RequiredRole role : component.getRequiredRoles_InterfaceRequiringEntity()) {
+            indexInterface(role);
+        }
+    }
 
-        return getComponentDiagramText();
+    /*
+     * Interfaces that are drawn as nodes, implicit interfaces are drawn as the components that
+     * provide them. The ports of composite components are always linked to an interface.
+     */
+    private boolean isDeclared(final Role role, final boolean composite) {
+        final Interface iface = getIFaceByRef(role);
+        return (iface != null)
+                && ((composite && (role instanceof ProvidedRole))
+                        || !componentNames.contains(names.escape(iface.getEntityName())));
     }
 
-    @Override
-    public String get() {
-        return diagramText;
+    private boolean isEmpty() {
+        return compositeComponents.isEmpty() && basicComponents.isEmpty();
     }
 
-    private String getComponentDiagramText() {
-        final StringBuilder buffer = new StringBuilder();
+    private boolean isOverBudget() {
+        return (nodeCount > options.elementBudget()) || (edgeCount > options.elementBudget());
+    }
 
-        buffer.append("skinparam fixCircleLabelOverlapping true"); // avoid overlapping of labels
-        buffer.append(NEWLINE);
-        buffer.append("skinparam componentStyle uml2"); // UML2 Style
-        buffer.append(NEWLINE);
+    private void prepareComponent(final BasicComponent component) {
+        providedRoles.put(component, names.sortedByName(component.getProvidedRoles_InterfaceProvidingEntity()));
+        requiredRoles.put(component, names.sortedByName(component.getRequiredRoles_InterfaceRequiringEntity()));
+        indexInterfaces(component);
+    }
 
-        /*
-         * Declare composite components before basic components. PlantUML nested components are only
-         * valid if they are the first reference to those components.
-         */
-        for (final CompositeComponent component : compositeComponents) {
-            appendComponent(component, buffer);
-            buffer.append(NEWLINE);
-            appendProvIfaces(component, buffer);
-            appendReqIfaces(component, buffer);
+    private void prepareComponent(final CompositeComponent component) {
+        addInnerComponents(component);
+        providedRoles.put(component, names.sortedByName(component.getProvidedRoles_InterfaceProvidingEntity()));
+        requiredRoles.put(component, names.sortedByName(component.getRequiredRoles_InterfaceRequiringEntity()));
+        createPorts(component);
+        indexInterfaces(component);
+        component.getConnectors__ComposedStructure()
+            .forEach(x -> names.escape(x.getEntityName()));
+    }
+
+    private void prepareComponent(final RepositoryComponent component) {
+        if (component instanceof final CompositeComponent composite) {
+            prepareComponent(composite);
+        } else if (component instanceof final BasicComponent basic) {
+            prepareComponent(basic);
         }
+    }
 
-        for (final BasicComponent component : basicComponents) {
-            final boolean isNotProviding = providedRoles.get(component)
+    /*
+     * Renders the fragment of a prepared component. Only reads the prepared maps, so fragments of
+     * different components can be rendered concurrently.
+     */
+    private String renderFragment(final RepositoryComponent component) {
+        final StringBuilder buffer = new StringBuilder();
+        if (component instanceof final CompositeComponent composite) {
+            appendComponent(composite, buffer);
+            buffer.append(NEWLINE);
+            appendProvIfaces(composite, buffer);
+            appendReqIfaces(composite, buffer);
+        } else if (component instanceof final BasicComponent basic) {
+            final boolean isNotProviding = providedRoles.get(basic)
                 .isEmpty();
-            final boolean isNotRequiring = requiredRoles.get(component)
+            final boolean isNotRequiring = requiredRoles.get(basic)
                 .isEmpty();
 
             if (isNotProviding && isNotRequiring) {
-                appendComponent(component, buffer);
+                appendComponent(basic, buffer);
                 buffer.append(NEWLINE);
             } else {
-                appendProvIfaces(component, buffer);
-                appendReqIfaces(component, buffer);
+                appendProvIfaces(basic, buffer);
+                appendReqIfaces(basic, buffer);
             }
         }
-
         return buffer.toString();
     }
 
-    private Interface getIFaceByRef(final Role role) {
-        final EList<EObject> crossRefs = role.eCrossReferences();
-        for (final Interface iface : ifaces) {
-            if (crossRefs.contains(iface)) {
-                return iface;
+    /*
+     * Prepares all components in order, renders the missing fragments on the common fork join pool
+     * and returns the fragments in the order of the components.
+     */
+    private String[] renderFragments(final List<RepositoryComponent> components) {
+        final String[] componentFragments = new String[components.size()];
+        for (int i = 0; i < componentFragments.length; i++) {
+            cancellation.check();
+            final RepositoryComponent component = components.get(i);
+            componentFragments[i] = reusableFragments.get(component);
+            if (componentFragments[i] == null) {
+                prepareComponent(component);
             }
         }
-        return null;
+
+        names.setReadOnly(true);
+        try {
+            IntStream.range(0, componentFragments.length)
+                .parallel()
+                .filter(i -> componentFragments[i] == null)
+                .forEach(i -> {
+                    cancellation.check();
+                    componentFragments[i] = renderFragment(components.get(i));
+                });
+        } finally {
+            names.setReadOnly(false);
+        }
+        return componentFragments;
+    }
+
+    private void writeComponentDiagramText(final Appendable out, final boolean keepFragments) throws IOException {
+        final long start = metrics.startPhase();
+        cancellation.begin();
+        final Appendable counted = metrics.count(out);
+        writeDiagramText(counted, keepFragments);
+        metrics.stopPhase(Phase.EMISSION, start);
+        metrics.generated(nodeCount + edgeCount, counted);
+    }
+
+    private void writeDiagramText(final Appendable out, final boolean keepFragments) throws IOException {
+        out.append("skinparam fixCircleLabelOverlapping true"); // avoid overlapping of labels
+        out.append(NEWLINE);
+        out.append("skinparam componentStyle uml2"); // UML2 Style
+        out.append(NEWLINE);
+
+        /*
+         * Declare composite components before basic components. PlantUML nested components are only
+         * valid if they are the first reference to those components.
+         */
+        final List<RepositoryComponent> components = new ArrayList<>(
+                compositeComponents.size() + basicComponents.size());
+        components.addAll(compositeComponents);
+        components.addAll(basicComponents);
+
+        if (isOverBudget()) {
+            writeReducedDiagramText(components, out);
+            return;
+        }
+
+        // Interfaces are declared once, the fragments only link to them
+        writeInterfaceDeclarations(components, out);
+        if (options.parallel() && ((components.size() - reusableFragments.size()) >= PARALLEL_THRESHOLD)) {
+            final String[] componentFragments = renderFragments(components);
+            for (int i = 0; i < componentFragments.length; i++) {
+                out.append(componentFragments[i]);
+                if (keepFragments) {
+                    fragments.put(components.get(i), componentFragments[i]);
+                }
+            }
+        } else {
+            for (final RepositoryComponent component : components) {
+                cancellation.check();
+                out.append(getFragment(component, keepFragments));
+            }
+        }
+    }
+
+    /*
+     * Declares the interfaces that are linked by the fragments, sorted by name. The interfaces are
+     * taken from the model instead of the fragments, so reused fragments are covered as well.
+     */
+    private void writeInterfaceDeclarations(final List<RepositoryComponent> components, final Appendable out)
+            throws IOException {
+        final Set<Interface> declared = new LinkedHashSet<>();
+        for (final RepositoryComponent component : components) {
+            cancellation.check();
+            final boolean composite = component instanceof CompositeComponent;
+            for (final ProvidedRole role : component.getProvidedRoles_InterfaceProvidingEntity()) {
+                if (isDeclared(role, composite)) {
+                    declared.add(getIFaceByRef(role));
+                }
+            }
+            for (final RequiredRole role : component.getRequiredRoles_InterfaceRequiringEntity()) {
+                if (isDeclared(role, composite)) {
+                    declared.add(getIFaceByRef(role));
+                }
+            }
+        }
+
+        final StringBuilder buffer = new StringBuilder();
+        for (final Interface iface : names.sortedByName(declared)) {
+            buffer.append("interface ");
+            buffer.append(NAME_START);
+            buffer.append(iface.getEntityName());
+            buffer.append(NAME_END);
+            buffer.append(" as ");
+            buffer.append(getIfaceIdentifier(iface));
+            buffer.append(NEWLINE);
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    /*
+     * Writes the composite and free basic components as single nodes. Required interfaces become
+     * dependencies on the components that provide them, interfaces without a provider in the diagram
+     * are left out.
+     */
+    private void writeReducedDiagramText(final List<RepositoryComponent> components, final Appendable out)
+            throws IOException {
+        final LevelOfDetail<RepositoryComponent> detail = new LevelOfDetail<>(options.elementBudget());
+        final Map<Interface, Set<String>> providers = new HashMap<>();
+        for (final RepositoryComponent component : components) {
+            cancellation.check();
+            final String name = names.identifier(component);
+            detail.addNode(name, component);
+            for (final ProvidedRole role : component.getProvidedRoles_InterfaceProvidingEntity()) {
+                final Interface iface = getReferencedInterface(role);
+                if (iface != null) {
+                    providers.computeIfAbsent(iface, x -> new LinkedHashSet<>())
+                        .add(name);
+                }
+            }
+        }
+        for (final RepositoryComponent component : components) {
+            final String name = names.identifier(component);
+            for (final RequiredRole role : component.getRequiredRoles_InterfaceRequiringEntity()) {
+                final Interface iface = getReferencedInterface(role);
+                if (iface == null) {
+                    continue;
+                }
+                final String ifaceName = names.escape(iface.getEntityName());
+                // Implicit interfaces refer directly to the component
+                for (final String provider : providers.getOrDefault(iface, Set.of(ifaceName))) {
+                    detail.addEdge(name, provider, ifaceName);
+                }
+            }
+        }
+
+        final StringBuilder buffer = new StringBuilder();
+        for (final RepositoryComponent component : detail.getNodes()) {
+            buffer.append(COMPONENT_START);
+            buffer.append(names.identifier(component));
+            buffer.append(COMPONENT_END);
+            buffer.append(NEWLINE);
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+        // example: [First Component] ..> [Second Component] : requires HTTP
+        for (final LevelOfDetail.Edge edge : detail.getEdges()) {
+            buffer.append(COMPONENT_START);
+            buffer.append(edge.from());
+            buffer.append(COMPONENT_END);
+            buffer.append(REQUIRES_LINK);
+            buffer.append(COMPONENT_START);
+            buffer.append(edge.to());
+            buffer.append(COMPONENT_END);
+            buffer.append(REQUIRES_LABEL);
+            buffer.append(' ');
+            buffer.append(edge.weight() == 1 ? edge.label() : edge.weight() + " interfaces");
+            buffer.append(NEWLINE);
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+        detail.appendSummary(buffer);
+        out.append(buffer);
+    }
+
+    @Override
+    public synchronized void writeTo(final Appendable out) throws IOException {
+        if (diagramText != null) {
+            out.append(diagramText);
+        } else if (!isEmpty()) {
+            writeComponentDiagramText(out, false);
+        }
     }
 
-}
\ No newline at end of file
+}
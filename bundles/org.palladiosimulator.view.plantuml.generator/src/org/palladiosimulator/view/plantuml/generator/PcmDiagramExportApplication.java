@@ -0,0 +1,23 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Headless application rendering the diagrams of all PCM models in a directory tree, see
+ * {@link PcmDiagramExporter#run(String[])} for the arguments.
+ */
+public class PcmDiagramExportApplication implements IApplication {
+
+	@Override
+	public Object start(final IApplicationContext context) throws Exception {
+		final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		return PcmDiagramExporter.run(args == null ? new String[0] : args);
+	}
+
+	@Override
+	public void stop() {
+		// The export is not interruptible from outside
+	}
+
+}
@@ -0,0 +1,396 @@
+package org.palladiosimulator.view.plantuml.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.palladiosimulator.pcm.PcmPackage;
+import org.palladiosimulator.pcm.allocation.Allocation;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.system.System;
+
+/**
+ * Renders the diagrams of all PCM models in a directory tree into {@code .puml} files without a
+ * workbench.
+ *
+ * The models are loaded and rendered in parallel. Every worker thread loads its models into its
+ * own resource set, so that models referenced by several files, e.g. a repository used by a
+ * system and an allocation, are loaded only once per worker. In the workspace mode, all models
+ * are loaded into one shared resource set instead, see {@link #exportWorkspace(Path, Path)}.
+ */
+public class PcmDiagramExporter {
+
+	/**
+	 * The result of an export.
+	 *
+	 * @param files    the number of model files
+	 * @param diagrams the number of written diagrams
+	 * @param failures the number of model files that could not be rendered
+	 * @param bytes    the size of the written diagram files
+	 * @param nanos    the duration of the export
+	 */
+	public record Summary(int files, int diagrams, int failures, long bytes, long nanos) {
+
+		@Override
+		public String toString() {
+			final double seconds = nanos / 1e9;
+			return String.format("Rendered %d diagrams from %d files in %.2f s (%.1f diagrams/s, %d KiB), %d failed",
+			        diagrams, files, seconds, diagrams / Math.max(seconds, 1e-9), bytes / 1024, failures);
+		}
+	}
+
+	private record FileResult(int diagrams, long bytes) {
+	}
+
+	/*
+	 * A resource set that can be shared by the worker threads once all models are loaded. Resources
+	 * are looked up by their URI in a map instead of by comparing the URIs of all resources.
+	 */
+	private static final class WorkspaceResourceSet extends ResourceSetImpl {
+
+		WorkspaceResourceSet() {
+			setURIResourceMap(new HashMap<>());
+		}
+
+		@Override
+		public synchronized Resource createResource(final URI uri) {
+			return super.createResource(uri);
+		}
+
+		@Override
+		public synchronized Resource getResource(final URI uri, final boolean loadOnDemand) {
+			return super.getResource(uri, loadOnDemand);
+		}
+
+	}
+
+	private static final String CONTAINERS_PER_PAGE_OPTION = "--containers-per-page";
+	private static final String FILE_EXTENSION = ".puml";
+	private static final Set<String> MODEL_EXTENSIONS = Set.of("repository", "system", "allocation");
+	private static final String NO_HYPERLINKS_OPTION = "--no-hyperlinks";
+	private static final String SHORT_ALIASES_OPTION = "--short-aliases";
+	private static final String USAGE = "Usage: [--workspace] [--short-aliases] [--no-hyperlinks] "
+	        + "[--containers-per-page <n>] <source directory> <target directory> [threads]";
+	private static final String WORKSPACE_OPTION = "--workspace";
+
+	private static ResourceSet createResourceSet(final ResourceSet resourceSet) {
+		for (final String extension : MODEL_EXTENSIONS) {
+			resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(extension,
+			        new XMIResourceFactoryImpl());
+		}
+		return resourceSet;
+	}
+
+	private static String getExtension(final Path file) {
+		final String fileName = file.getFileName().toString();
+		return fileName.substring(fileName.lastIndexOf('.') + 1);
+	}
+
+	private static List<Path> getModelFiles(final Path sourceDirectory) throws IOException {
+		try (Stream<Path> stream = Files.walk(sourceDirectory)) {
+			return stream.filter(Files::isRegularFile).filter(x -> MODEL_EXTENSIONS.contains(getExtension(x)))
+			        .sorted().toList();
+		}
+	}
+
+	private static Path getTarget(final Path sourceDirectory, final Path targetDirectory, final Path file) {
+		return targetDirectory.resolve(sourceDirectory.relativize(file).toString() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Renders the diagrams of all models below a directory.
+	 *
+	 * Usage: {@code [--workspace] [--short-aliases] [--no-hyperlinks] [--containers-per-page <n>]
+	 * <source directory> <target directory> [threads]}
+	 *
+	 * @param args the arguments
+	 * @throws Exception if the export fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		// Register the packages and the path maps of the PCM outside of an OSGi framework
+		EcorePlugin.ExtensionProcessor.process(null);
+		PcmPackage.eINSTANCE.eClass();
+		java.lang.System.exit(run(args));
+	}
+
+	/**
+	 * Runs an export with command line arguments and prints its summary.
+	 *
+	 * @param args the arguments
+	 *             {@code [--workspace] [--short-aliases] [--no-hyperlinks] [--containers-per-page <n>]
+	 *             <source directory> <target directory> [threads]}
+	 * @return the exit code, {@code 0} if all models were rendered
+	 * @throws IOException          if the model files cannot be listed
+	 * @throws InterruptedException if the export is interrupted
+	 */
+	public static int run(final String[] args) throws IOException, InterruptedException {
+		boolean workspace = false;
+		DiagramOptions options = DiagramOptions.DEFAULT;
+		int containersPerPage = 0;
+		int first = 0;
+		for (; (first < args.length) && args[first].startsWith("--"); first++) {
+			if (WORKSPACE_OPTION.equals(args[first])) {
+				workspace = true;
+			} else if (SHORT_ALIASES_OPTION.equals(args[first])) {
+				options = options.withShortAliases(true);
+			} else if (NO_HYPERLINKS_OPTION.equals(args[first])) {
+				// The links only work in the workbench
+				options = options.withHyperlinks(false);
+			} else if (CONTAINERS_PER_PAGE_OPTION.equals(args[first]) && ((first + 1) < args.length)) {
+				containersPerPage = Integer.parseInt(args[++first]);
+			} else {
+				java.lang.System.err.println(USAGE);
+				return 2;
+			}
+		}
+		final String[] paths = Arrays.copyOfRange(args, first, args.length);
+		if ((paths.length < 2) || (paths.length > 3)) {
+			java.lang.System.err.println(USAGE);
+			return 2;
+		}
+		final int threads = paths.length > 2 ? Integer.parseInt(paths[2]) : Runtime.getRuntime().availableProcessors();
+		final PcmDiagramExporter exporter = new PcmDiagramExporter(threads, options, containersPerPage);
+		final Summary summary = workspace ? exporter.exportWorkspace(Path.of(paths[0]), Path.of(paths[1]))
+		        : exporter.export(Path.of(paths[0]), Path.of(paths[1]));
+		java.lang.System.out.println(summary);
+		return summary.failures() == 0 ? 0 : 1;
+	}
+
+	private final int containersPerPage;
+	private final DiagramOptions options;
+	private final ThreadLocal<ResourceSet> resourceSets = ThreadLocal
+	        .withInitial(() -> createResourceSet(new ResourceSetImpl()));
+	private final int threads;
+
+	/**
+	 * Creates an exporter.
+	 *
+	 * @param threads the number of worker threads
+	 */
+	public PcmDiagramExporter(final int threads) {
+		this(threads, DiagramOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates an exporter with diagram options. Repositories are always generated on one thread,
+	 * because the files are exported in parallel.
+	 *
+	 * @param threads the number of worker threads
+	 * @param options the options of the diagrams
+	 */
+	public PcmDiagramExporter(final int threads, final DiagramOptions options) {
+		this(threads, options, 0);
+	}
+
+	/**
+	 * Creates an exporter that splits the diagrams of allocations on many resource containers into
+	 * pages, which are written as separate diagrams into the file of the allocation.
+	 *
+	 * @param threads           the number of worker threads
+	 * @param options           the options of the diagrams
+	 * @param containersPerPage the maximum number of resource containers per page, {@code 0} to
+	 *                          write every allocation as one diagram
+	 * @see PcmAllocationDiagramGenerator#getPages(int)
+	 */
+	public PcmDiagramExporter(final int threads, final DiagramOptions options, final int containersPerPage) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The exporter needs at least one thread.");
+		}
+		if (containersPerPage < 0) {
+			throw new IllegalArgumentException("containersPerPage must not be negative: " + containersPerPage);
+		}
+		this.threads = threads;
+		this.options = Objects.requireNonNull(options);
+		this.containersPerPage = containersPerPage;
+	}
+
+	/**
+	 * Renders the diagrams of all models below a directory. The diagram of a model file is written to
+	 * the same relative path below the target directory, with {@code .puml} appended to the file name.
+	 * Files that cannot be rendered are reported and skipped.
+	 *
+	 * @param sourceDirectory the directory of the models
+	 * @param targetDirectory the directory of the diagrams
+	 * @return the summary of the export
+	 * @throws IOException          if the model files cannot be listed
+	 * @throws InterruptedException if the export is interrupted
+	 */
+	public Summary export(final Path sourceDirectory, final Path targetDirectory)
+	        throws IOException, InterruptedException {
+		final long start = java.lang.System.nanoTime();
+		final List<Path> files = getModelFiles(sourceDirectory);
+
+		final List<Callable<FileResult>> tasks = new ArrayList<>();
+		for (final Path file : files) {
+			final Path target = getTarget(sourceDirectory, targetDirectory, file);
+			tasks.add(() -> exportFile(file, target));
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			return summarize(files, executor.invokeAll(tasks), start);
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Renders the diagrams of all models below a directory like {@link #export(Path, Path)}, but from
+	 * one shared resource set. All model files are loaded in parallel before the references between
+	 * them are resolved in bulk on one thread, because resolving changes the shared resource set.
+	 * Every model is thus loaded and every reference is resolved only once for all diagrams, and the
+	 * diagrams only read resolved models.
+	 * The assembly graph of a system is shared by the diagrams of the system and its allocations.
+	 *
+	 * @param sourceDirectory the directory of the models
+	 * @param targetDirectory the directory of the diagrams
+	 * @return the summary of the export
+	 * @throws IOException          if the model files cannot be listed
+	 * @throws InterruptedException if the export is interrupted
+	 */
+	public Summary exportWorkspace(final Path sourceDirectory, final Path targetDirectory)
+	        throws IOException, InterruptedException {
+		final long start = java.lang.System.nanoTime();
+		final List<Path> files = getModelFiles(sourceDirectory);
+
+		final ResourceSet resourceSet = createResourceSet(new WorkspaceResourceSet());
+		final Map<System, AssemblyGraph> graphs = new ConcurrentHashMap<>();
+		final List<Resource> resources = new ArrayList<>();
+		final List<Callable<Exception>> loads = new ArrayList<>();
+		for (final Path file : files) {
+			final Resource resource = resourceSet.createResource(URI.createFileURI(file.toAbsolutePath().toString()));
+			resources.add(resource);
+			loads.add(() -> {
+				try {
+					resource.load(Map.of());
+					return null;
+				} catch (final IOException | RuntimeException e) {
+					return e;
+				}
+			});
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Exception>> loadFailures = executor.invokeAll(loads);
+			// References to models outside of the directory, e.g. the PCM primitive types, are loaded on demand.
+			for (final Resource resource : resources) {
+				EcoreUtil.resolveAll(resource);
+			}
+
+			final List<Callable<FileResult>> tasks = new ArrayList<>();
+			for (int i = 0; i < files.size(); i++) {
+				final Resource resource = resources.get(i);
+				final Future<Exception> loadFailure = loadFailures.get(i);
+				final Path target = getTarget(sourceDirectory, targetDirectory, files.get(i));
+				tasks.add(() -> {
+					if (loadFailure.get() != null) {
+						throw loadFailure.get();
+					}
+					return exportResource(resource, target, x -> graphs.computeIfAbsent(x, AssemblyGraph::new));
+				});
+			}
+			return summarize(files, executor.invokeAll(tasks), start);
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private FileResult exportFile(final Path file, final Path target) throws IOException {
+		return exportResource(
+		        resourceSets.get().getResource(URI.createFileURI(file.toAbsolutePath().toString()), true), target,
+		        x -> null);
+	}
+
+	/*
+	 * Writes the diagrams of the models in a resource, the graphs of the systems are created by the
+	 * diagrams if the function returns null.
+	 */
+	private FileResult exportResource(final Resource resource, final Path target,
+	        final Function<System, AssemblyGraph> graphs) throws IOException {
+		final List<UmlDiagramSupplier> diagrams = new ArrayList<>();
+		for (final EObject content : resource.getContents()) {
+			if (content instanceof final Repository repository) {
+				// The files are already exported in parallel
+				diagrams.add(
+				        new PcmComponentDiagramGenerator(repository, null, Set.of(), options.withParallel(false)));
+			} else if (content instanceof final System system) {
+				diagrams.add(new PcmSystemDiagramGenerator(system, options, graphs.apply(system)));
+			} else if (content instanceof final Allocation allocation) {
+				final System system = allocation.getSystem_Allocation();
+				final PcmAllocationDiagramGenerator generator = new PcmAllocationDiagramGenerator(allocation,
+				        options, system == null ? null : graphs.apply(system));
+				final Iterator<UmlDiagramSupplier> pages = containersPerPage > 0 ? generator.getPages(containersPerPage)
+				        : null;
+				if ((pages != null) && pages.hasNext()) {
+					pages.forEachRemaining(diagrams::add);
+				} else {
+					diagrams.add(generator);
+				}
+			}
+		}
+		if (diagrams.isEmpty()) {
+			return new FileResult(0, 0);
+		}
+
+		if (target.getParent() != null) {
+			Files.createDirectories(target.getParent());
+		}
+		try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+			for (final UmlDiagramSupplier diagram : diagrams) {
+				writer.write("@startuml\n");
+				diagram.writeTo(writer);
+				writer.write("@enduml\n");
+			}
+		}
+		return new FileResult(diagrams.size(), Files.size(target));
+	}
+
+	private Summary summarize(final List<Path> files, final List<Future<FileResult>> results, final long start)
+	        throws InterruptedException {
+		int diagrams = 0;
+		int failures = 0;
+		long bytes = 0;
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				final FileResult result = results.get(i).get();
+				diagrams += result.diagrams();
+				bytes += result.bytes();
+			} catch (final ExecutionException e) {
+				failures++;
+				java.lang.System.err.println("Failed to render " + files.get(i) + ": " + e.getCause());
+			}
+		}
+		return new Summary(files.size(), diagrams, failures, bytes, java.lang.System.nanoTime() - start);
+	}
+
+}
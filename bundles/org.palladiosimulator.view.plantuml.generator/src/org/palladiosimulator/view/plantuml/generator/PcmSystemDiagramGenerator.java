@@ -1,12 +1,18 @@
 package org.palladiosimulator.view.plantuml.generator;
 
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.byName;
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.escape;
-import static org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier.getEObjectHyperlink;
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
+import org.eclipse.emf.ecore.EObject;
 import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
 import org.palladiosimulator.pcm.core.composition.AssemblyContext;
 import org.palladiosimulator.pcm.core.composition.Connector;
@@ -17,10 +23,13 @@ import org.palladiosimulator.pcm.repository.CompositeComponent;
 import org.palladiosimulator.pcm.repository.ProvidedRole;
 import org.palladiosimulator.pcm.repository.RepositoryComponent;
 import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
 
 public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 
+	private static final String AS = " as ";
 	private static final String COLON = " : ";
+	private static final String COMPONENT_ALIAS = "C";
 	private static final String COMPONENT_START = "[", COMPONENT_END = "]";
 	private static final String CURLY_OPENING_BRACKET = "{", CURLY_CLOSING_BRACKET = "}";
 	private static final String DEFAULT_NAME = "System";
@@ -34,32 +43,69 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 	private static final String SPACE = " ";
 
 	private final StringBuilder builder;
+	private final Cancellation cancellation = new Cancellation();
 	private final List<BasicComponent> components;
+	private final Set<RepositoryComponent> componentSet;
 	private final List<Connector> connectors;
-	private final String diagramText;
+	private final Map<CompositeComponent, Map<String, ProvidedDelegationConnector>> delegations;
+	private String diagramText;
+	private final AssemblyGraph graph;
+	private final Map<EObject, String> hyperlinks = new IdentityHashMap<>();
+	private final GenerationMetrics metrics = new GenerationMetrics(PcmSystemDiagramGenerator.class);
+	private final EscapedNames names = new EscapedNames(metrics);
+	private final DiagramOptions options;
 	private final List<String> providedRoles;
 	private final String systemName;
 
 	public PcmSystemDiagramGenerator(final System system) {
+		this(system, DiagramOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates the diagram of a system. If the system exceeds the element budget, the assembly
+	 * connectors between the same components are aggregated into one edge and the provided roles of
+	 * the system are left out.
+	 *
+	 * @param system  the system
+	 * @param options the options
+	 */
+	public PcmSystemDiagramGenerator(final System system, final DiagramOptions options) {
+		this(system, options, null);
+	}
+
+	/**
+	 * Creates the diagram of a system from its assembly graph, which can be shared with the diagrams
+	 * of its allocations.
+	 *
+	 * @param system  the system
+	 * @param options the options
+	 * @param graph   the assembly graph of the system, {@code null} to create it
+	 */
+	public PcmSystemDiagramGenerator(final System system, final DiagramOptions options, final AssemblyGraph graph) {
+		final long start = metrics.startPhase();
+		cancellation.begin();
+		this.options = Objects.requireNonNull(options);
 		builder = new StringBuilder();
 
 		systemName = getSystemName(Objects.requireNonNull(system));
 
-		components = system.getAssemblyContexts__ComposedStructure().stream().filter(c -> (c != null))
-		        .map(AssemblyContext::getEncapsulatedComponent__AssemblyContext)
-		        .filter(c -> (c != null) && (c.getEntityName() != null) && !c.getEntityName().isBlank()).distinct()
-		        .filter(BasicComponent.class::isInstance).map(BasicComponent.class::cast).sorted(byName()).toList();
+		this.graph = graph != null ? graph : new AssemblyGraph(system);
+		components = names.sortedByName(IntStream.range(0, this.graph.getAssembledComponentCount())
+		        .mapToObj(this.graph::getComponent)
+		        .filter(c -> (c.getEntityName() != null) && !c.getEntityName().isBlank())
+		        .filter(BasicComponent.class::isInstance).map(BasicComponent.class::cast).toList());
+		componentSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		componentSet.addAll(components);
+		delegations = new HashMap<>();
 
-		connectors = system.getConnectors__ComposedStructure().stream()
+		connectors = names.sortedByName(system.getConnectors__ComposedStructure().stream()
 		        .filter(c -> (c != null) && (c.getEntityName() != null) && !c.getEntityName().isBlank()).distinct()
-		        .sorted(byName()).toList();
+		        .toList());
 
 		providedRoles = system.getProvidedRoles_InterfaceProvidingEntity().stream().filter(r -> r != null)
 		        .map(ProvidedRole::getEntityName).filter(n -> (n != null) && !n.isBlank())
-		        .map(UmlDiagramSupplier::escape).distinct().sorted().toList();
-
-		diagramText = components.isEmpty() ? "" : getSystemDiagramText();
-
+		        .map(names::escape).distinct().sorted().toList();
+		metrics.stopPhase(Phase.COLLECTION, start);
 	}
 
 	// example: [Access Control] -(0- [Web Server] : REST
@@ -71,34 +117,36 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 		final RepositoryComponent providing = connector.getProvidingAssemblyContext_AssemblyConnector()
 		        .getEncapsulatedComponent__AssemblyContext();
 
-		if (components.contains(requiring) && components.contains(providing)) {
-			builder.append(COMPONENT_START);
-
+		if (componentSet.contains(requiring) && componentSet.contains(providing)) {
 			// requiring context
-			builder.append(escape(requiring.getEntityName()));
-			builder.append(COMPONENT_END);
+			appendReference(names.escape(requiring.getEntityName()));
 			builder.append(PROVIDES_REQUIRES_LINK);
-			builder.append(COMPONENT_START);
 
 			// providing context
-			builder.append(escape(providing.getEntityName()));
-			builder.append(COMPONENT_END);
+			appendReference(names.escape(providing.getEntityName()));
 			builder.append(COLON);
-			builder.append(escape(connector.getProvidedRole_AssemblyConnector().getEntityName()));
+			builder.append(names.escape(connector.getProvidedRole_AssemblyConnector().getEntityName()));
 			builder.append(NEWLINE);
 		}
 
 	}
 
-	// example: [FileStorage] [[link]]
+	// example: [FileStorage] [[link]], with short aliases [FileStorage] as C1 [[link]]
 	private void appendComponent(final BasicComponent component) {
+		final String name = names.escape(component.getEntityName());
 		builder.append(COMPONENT_START);
-		builder.append(escape(component.getEntityName()));
+		builder.append(name);
 		builder.append(COMPONENT_END);
-		builder.append(SPACE);
-		builder.append(LINK_START);
-		builder.append(getEObjectHyperlink(component.getRepository__RepositoryComponent()));
-		builder.append(LINK_END);
+		if (options.shortAliases()) {
+			builder.append(AS);
+			builder.append(names.alias(name, COMPONENT_ALIAS));
+		}
+		if (options.hyperlinks()) {
+			builder.append(SPACE);
+			builder.append(LINK_START);
+			builder.append(getHyperlink(component.getRepository__RepositoryComponent()));
+			builder.append(LINK_END);
+		}
 		builder.append(NEWLINE);
 	}
 
@@ -106,37 +154,29 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 	// DataAccess - IMedia
 	// IMedia - [Access Control]
 	private void appendProvidedDelConnector(final ProvidedDelegationConnector connector) {
-		final String innerProvidedRole = escape(
+		final String innerProvidedRole = names.escape(
 		        connector.getInnerProvidedRole_ProvidedDelegationConnector().getEntityName());
 		InterfaceProvidingEntity providingEntity = connector.getInnerProvidedRole_ProvidedDelegationConnector()
 		        .getProvidingEntity_ProvidedRole();
 		if (providingEntity instanceof final CompositeComponent composite) {
-			providingEntity = composite.getConnectors__ComposedStructure().stream()
-			        .filter(ProvidedDelegationConnector.class::isInstance).map(ProvidedDelegationConnector.class::cast)
-			        .filter(c -> (c != null) && (c.getEntityName() != null) && !c.getEntityName().isBlank()).distinct()
-			        .sorted(byName())
-			        .filter(c -> (escape(c.getOuterProvidedRole_ProvidedDelegationConnector().getEntityName())
-			                .equals(innerProvidedRole)))
-			        .findFirst().map(ProvidedDelegationConnector::getAssemblyContext_ProvidedDelegationConnector)
-			        .map(AssemblyContext::getEncapsulatedComponent__AssemblyContext)
-			        .orElse((CompositeComponent) providingEntity);
+			providingEntity = Optional.ofNullable(getDelegations(composite).get(innerProvidedRole))
+			        .map(ProvidedDelegationConnector::getAssemblyContext_ProvidedDelegationConnector)
+			        .map(AssemblyContext::getEncapsulatedComponent__AssemblyContext).orElse(composite);
 		}
 
-		if (components.contains(providingEntity)) {
+		if (componentSet.contains(providingEntity)) {
 
 			builder.append(PORT);
 			builder.append(innerProvidedRole);
 			builder.append(NEWLINE);
 
-			builder.append(escape(connector.getOuterProvidedRole_ProvidedDelegationConnector().getEntityName()));
+			builder.append(names.escape(connector.getOuterProvidedRole_ProvidedDelegationConnector().getEntityName()));
 			builder.append(SIMPLE_LINK);
 			builder.append(innerProvidedRole);
 			builder.append(NEWLINE);
 			builder.append(innerProvidedRole);
 			builder.append(SIMPLE_LINK);
-			builder.append(COMPONENT_START);
-			builder.append(escape(providingEntity.getEntityName()));
-			builder.append(COMPONENT_END);
+			appendReference(names.escape(providingEntity.getEntityName()));
 			builder.append(NEWLINE);
 		}
 
@@ -151,6 +191,17 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 		builder.append(NEWLINE);
 	}
 
+	// example: [Web Server], with short aliases C2
+	private void appendReference(final String name) {
+		if (options.shortAliases()) {
+			builder.append(names.alias(name, COMPONENT_ALIAS));
+		} else {
+			builder.append(COMPONENT_START);
+			builder.append(name);
+			builder.append(COMPONENT_END);
+		}
+	}
+
 	// example: }
 	private void appendSystemEnd() {
 		builder.append(CURLY_CLOSING_BRACKET);
@@ -168,22 +219,82 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 
 	}
 
+	// writes and clears the builder, then checks whether the generation was cancelled
+	private void flush(final Appendable out) throws IOException {
+		out.append(builder);
+		builder.setLength(0);
+		cancellation.check();
+	}
+
 	@Override
-	public String get() {
+	public synchronized String get() {
+		if (diagramText == null) {
+			final StringBuilder buffer = new StringBuilder();
+			try {
+				writeTo(buffer);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			diagramText = buffer.toString();
+		}
 		return diagramText;
 	}
 
-	private String getSystemDiagramText() {
+	// delegation connectors of a composite by the escaped name of their outer role, the first by name wins
+	private Map<String, ProvidedDelegationConnector> getDelegations(final CompositeComponent composite) {
+		return delegations.computeIfAbsent(composite, x -> {
+			final Map<String, ProvidedDelegationConnector> delegationsByRole = new HashMap<>();
+			names.sortedByName(x.getConnectors__ComposedStructure().stream()
+			        .filter(ProvidedDelegationConnector.class::isInstance).map(ProvidedDelegationConnector.class::cast)
+			        .filter(c -> (c != null) && (c.getEntityName() != null) && !c.getEntityName().isBlank()).distinct()
+			        .toList())
+			        .forEach(c -> delegationsByRole.putIfAbsent(
+			                names.escape(c.getOuterProvidedRole_ProvidedDelegationConnector().getEntityName()), c));
+			return delegationsByRole;
+		});
+	}
+
+	// the components of a system mostly share a few repositories, so their links are built once
+	private String getHyperlink(final EObject target) {
+		return hyperlinks.computeIfAbsent(target, UmlDiagramSupplier::getEObjectHyperlink);
+	}
+
+	private String getSystemName(final System system) {
+		if ((system == null) || (system.getEntityName() == null) || system.getEntityName().isBlank()) {
+			return DEFAULT_NAME;
+		}
+		final String name = names.escape(system.getEntityName());
+		if (name.isBlank() || "null".equalsIgnoreCase(name) || "aName".equalsIgnoreCase(name)) {
+			return DEFAULT_NAME;
+		}
+		return name;
+	}
+
+	private boolean isOverBudget() {
+		return ((components.size() + providedRoles.size()) > options.elementBudget())
+		        || (connectors.size() > options.elementBudget());
+	}
+
+	private void writeDiagramText(final Appendable out) throws IOException {
 		builder.append("skinparam fixCircleLabelOverlapping true"); // avoid overlapping of labels
 		builder.append(NEWLINE);
 		builder.append("skinparam componentStyle uml2"); // UML2 Style
 		builder.append(NEWLINE);
 
+		if (isOverBudget()) {
+			writeReducedDiagram(out);
+			return;
+		}
+
 		providedRoles.forEach(this::appendProvidedRole);
 
 		appendSystemStart(systemName);
+		flush(out);
 
-		components.forEach(this::appendComponent);
+		for (final BasicComponent component : components) {
+			appendComponent(component);
+			flush(out);
+		}
 
 		for (final Connector connector : connectors) {
 			if (connector instanceof AssemblyConnector) {
@@ -191,21 +302,71 @@ public class PcmSystemDiagramGenerator implements UmlDiagramSupplier {
 			} else if (connector instanceof ProvidedDelegationConnector) {
 				appendProvidedDelConnector((ProvidedDelegationConnector) connector);
 			}
+			flush(out);
 		}
 
 		appendSystemEnd();
-		return builder.toString();
+		flush(out);
 	}
 
-	private String getSystemName(final System system) {
-		if ((system == null) || (system.getEntityName() == null) || system.getEntityName().isBlank()) {
-			return DEFAULT_NAME;
+	private void writeReducedDiagram(final Appendable out) throws IOException {
+		final LevelOfDetail<BasicComponent> detail = new LevelOfDetail<>(options.elementBudget());
+		for (final BasicComponent component : components) {
+			detail.addNode(names.escape(component.getEntityName()), component);
 		}
-		final String name = escape(system.getEntityName());
-		if (name.isBlank() || "null".equalsIgnoreCase(name) || "aName".equalsIgnoreCase(name)) {
-			return DEFAULT_NAME;
+		for (int providing = 0; providing < graph.getComponentCount(); providing++) {
+			if (!componentSet.contains(graph.getComponent(providing))) {
+				continue;
+			}
+			for (int i = graph.getEdgeStart(providing); i < graph.getEdgeEnd(providing); i++) {
+				final AssemblyConnector connector = graph.getConnector(i);
+				final RepositoryComponent requiring = graph.getComponent(graph.getEdgeTarget(i));
+				if (componentSet.contains(requiring) && (connector.getEntityName() != null)
+				        && !connector.getEntityName().isBlank()) {
+					detail.addEdge(names.escape(requiring.getEntityName()),
+					        names.escape(graph.getComponent(providing).getEntityName()),
+					        names.escape(connector.getProvidedRole_AssemblyConnector().getEntityName()));
+				}
+			}
 		}
-		return name;
+
+		appendSystemStart(systemName);
+		flush(out);
+		for (final BasicComponent component : detail.getNodes()) {
+			appendComponent(component);
+			flush(out);
+		}
+		// example: [Access Control] -(0- [Web Server] : 3 connectors
+		for (final LevelOfDetail.Edge edge : detail.getEdges()) {
+			appendReference(edge.from());
+			builder.append(PROVIDES_REQUIRES_LINK);
+			appendReference(edge.to());
+			builder.append(COLON);
+			builder.append(edge.weight() == 1 ? edge.label() : edge.weight() + " connectors");
+			builder.append(NEWLINE);
+			flush(out);
+		}
+		appendSystemEnd();
+		detail.appendSummary(builder);
+		flush(out);
+	}
+
+	@Override
+	public synchronized void writeTo(final Appendable out) throws IOException {
+		if (diagramText != null) {
+			out.append(diagramText);
+			return;
+		}
+		if (components.isEmpty()) {
+			return;
+		}
+
+		final long start = metrics.startPhase();
+		cancellation.begin();
+		final Appendable counted = metrics.count(out);
+		writeDiagramText(counted);
+		metrics.stopPhase(Phase.EMISSION, start);
+		metrics.generated(components.size() + connectors.size() + providedRoles.size(), counted);
 	}
 
 }
@@ -1,6 +1,8 @@
 package org.palladiosimulator.view.plantuml.generator;
 
+import java.io.IOException;
 import java.util.Comparator;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import org.eclipse.emf.common.util.URI;
@@ -9,6 +11,13 @@ import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.palladiosimulator.pcm.core.entity.NamedElement;
 
+/**
+ * Supplies the PlantUML text of a diagram.
+ *
+ * The generators collect the model elements when they are created and generate the text on the
+ * first call of {@link #get()} or {@link #writeTo(Appendable)}, which reads the model again. The
+ * model must not change in between, a changed model needs a new generator.
+ */
 public interface UmlDiagramSupplier extends Supplier<String> {
 
 	static Comparator<NamedElement> byName() {
@@ -29,9 +38,51 @@ public interface UmlDiagramSupplier extends Supplier<String> {
 		return link.toString();
 	}
 
+	/**
+	 * Escapes an identifier for PlantUML. Leading and trailing white space is removed and every run of
+	 * characters other than ASCII letters, digits and underscores is replaced by a single underscore.
+	 *
+	 * @param identifier the identifier, may be {@code null}
+	 * @return the escaped identifier, the empty string for {@code null}
+	 */
 	static String escape(final Object identifier) {
-		return identifier == null ? ""
-		        : String.valueOf(identifier).strip().replaceAll("\\s+", ".").replaceAll("\\W+", "_");
+		if (identifier == null) {
+			return "";
+		}
+		final String text = String.valueOf(identifier).strip();
+		StringBuilder escaped = null;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (isWordCharacter(c)) {
+				if (escaped != null) {
+					escaped.append(c);
+				}
+			} else {
+				// Copy lazily, most identifiers need no escaping
+				if (escaped == null) {
+					escaped = new StringBuilder(text.length()).append(text, 0, i);
+				}
+				if ((i == 0) || isWordCharacter(text.charAt(i - 1))) {
+					escaped.append('_');
+				}
+			}
+		}
+		return escaped == null ? text : escaped.toString();
+	}
+
+	/**
+	 * Runs a generation that can be cancelled, e.g. by the progress monitor of a job. The generators
+	 * created or written by the generation check the request regularly and throw a
+	 * {@link java.util.concurrent.CancellationException} once it returns {@code true}. A cancelled
+	 * generator can be written again later.
+	 *
+	 * @param <T>        the type of the result
+	 * @param cancelled  returns {@code true} if the generation is to be cancelled
+	 * @param generation the generation
+	 * @return the result of the generation
+	 */
+	static <T> T generateCancellable(final BooleanSupplier cancelled, final Supplier<T> generation) {
+		return Cancellation.run(cancelled, generation);
 	}
 
 	static String getEObjectHyperlink(final EObject eObject) {
@@ -48,4 +99,38 @@ public interface UmlDiagramSupplier extends Supplier<String> {
 		return uri.toString();
 	}
 
+	/**
+	 * @return the listener of all generators, {@link GenerationListener#NONE} by default
+	 */
+	static GenerationListener getGenerationListener() {
+		return GenerationMetrics.getListener();
+	}
+
+	private static boolean isWordCharacter(final char c) {
+		return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')) || (c == '_');
+	}
+
+	/**
+	 * Sets the listener that receives the metrics of all generators created afterwards.
+	 *
+	 * @param listener the listener, {@code null} to disable the metrics
+	 */
+	static void setGenerationListener(final GenerationListener listener) {
+		GenerationMetrics.setListener(listener);
+	}
+
+	/**
+	 * Writes the diagram text to an appendable, e.g. a {@link java.io.Writer}. Generators write the
+	 * text piece by piece while it is generated, so it is never held in memory as a whole.
+	 *
+	 * @param out the appendable
+	 * @throws IOException if the text cannot be appended
+	 */
+	default void writeTo(final Appendable out) throws IOException {
+		final String diagramText = get();
+		if (diagramText != null) {
+			out.append(diagramText);
+		}
+	}
+
 }
@@ -0,0 +1,172 @@
+package org.palladiosimulator.view.plantuml;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.ISelectionListener;
+import org.eclipse.ui.IViewPart;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Generates a diagram text in the background, so that large models do not freeze the workbench. The
+ * elements of the diagram are collected on the UI thread, where the models are changed, only the
+ * text is generated by the job.
+ *
+ * There is at most one generation at a time, requesting the diagram of another model or of a model
+ * that was changed meanwhile cancels it. Until the generation is done, the view shows a placeholder
+ * and is refreshed when the diagram is ready. The UI thread never waits for a generation. The
+ * current job is only accessed on the UI thread, so it needs no lock.
+ */
+final class DiagramGenerationJob extends Job {
+
+	private static final String CANCELLED = "note \"The generation of the diagram was cancelled.\" as Cancelled\n";
+
+	private static final String PLACEHOLDER = "note \"Generating the diagram...\" as Generating\n";
+
+	private static final String VIEW_ID = "net.sourceforge.plantuml.eclipse.views.PlantUmlView";
+
+	private static DiagramGenerationJob current;
+
+	/**
+	 * Returns the diagram text of a model. On the UI thread, the diagram is collected right away and
+	 * its text is generated by a job. The placeholder is returned until the job is done, then the view
+	 * is refreshed and the text of the job is returned. The text is generated again if the models
+	 * were changed since the diagram was collected.
+	 *
+	 * @param key      identifies the diagram, e.g. the model
+	 * @param recorder the recorder of the changes of the models
+	 * @param diagram  collects the diagram
+	 * @return the diagram text or the placeholder
+	 */
+	static String getDiagramText(final Object key, final DiagramChangeRecorder recorder,
+	        final Supplier<? extends UmlDiagramSupplier> diagram) {
+		if (Display.getCurrent() == null) {
+			return diagram.get().get();
+		}
+
+		final DiagramGenerationJob job = current;
+		if ((job == null) || !job.key.equals(key) || (job.changeCount != recorder.getChangeCount())) {
+			if (job != null) {
+				job.cancel();
+			}
+			// The models are changed on the UI thread, only the text is generated in the background
+			final UmlDiagramSupplier collected = diagram.get();
+			current = new DiagramGenerationJob(key, recorder.getChangeCount(), collected,
+			        DiagramGenerationJob.getSelectionPart());
+			current.schedule();
+			return PLACEHOLDER;
+		}
+		// The job may be cancelled before it runs
+		final IStatus status = job.status != null ? job.status : job.getResult();
+		if (status == null) {
+			return PLACEHOLDER;
+		}
+
+		current = null;
+		if (status.matches(IStatus.CANCEL)) {
+			// Cancelled in the progress view, the next request starts over
+			return CANCELLED;
+		}
+		if (job.failure != null) {
+			throw job.failure;
+		}
+		return job.diagramText;
+	}
+
+	/*
+	 * Returns the part whose selection supplied the model, the active editor if the PlantUML view
+	 * itself is active.
+	 */
+	private static IWorkbenchPart getSelectionPart() {
+		final IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+		final IWorkbenchPage page = window == null ? null : window.getActivePage();
+		if (page == null) {
+			return null;
+		}
+		final IWorkbenchPart part = page.getActivePart();
+		if ((part == null) || DiagramGenerationJob.VIEW_ID.equals(part.getSite().getId())) {
+			return page.getActiveEditor();
+		}
+		return part;
+	}
+
+	private final long changeCount;
+	private final UmlDiagramSupplier diagram;
+	private volatile String diagramText;
+	private volatile RuntimeException failure;
+	private final Object key;
+	private final IWorkbenchPart selectionPart;
+	/*
+	 * Set before the view is refreshed, the result of the job is only set after it ran.
+	 */
+	private volatile IStatus status;
+
+	private DiagramGenerationJob(final Object key, final long changeCount, final UmlDiagramSupplier diagram,
+	        final IWorkbenchPart selectionPart) {
+		super("Generating the diagram");
+		this.key = key;
+		this.changeCount = changeCount;
+		this.diagram = diagram;
+		this.selectionPart = selectionPart;
+		setPriority(Job.SHORT);
+	}
+
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		IStatus result = Status.OK_STATUS;
+		try {
+			diagramText = UmlDiagramSupplier.generateCancellable(monitor::isCanceled, diagram);
+		} catch (final CancellationException e) {
+			result = Status.CANCEL_STATUS;
+		} catch (final RuntimeException e) {
+			// Thrown on the UI thread when the diagram is requested again
+			failure = e;
+		}
+		status = result;
+
+		final Display display = PlatformUI.getWorkbench().getDisplay();
+		if (!display.isDisposed()) {
+			display.asyncExec(() -> {
+				// Otherwise the diagram is obsolete
+				if (current == this) {
+					refreshView();
+				}
+			});
+		}
+		return result;
+	}
+
+	/*
+	 * Passes the selection of the part that supplied the model to the PlantUML view again, which then
+	 * requests the diagram. The view is refreshed directly, the selection service only passes on
+	 * selections of the active part, which may be the view itself. Without a selection listener, the
+	 * selection is set again if the part is still active.
+	 */
+	private void refreshView() {
+		final ISelectionProvider selectionProvider = (selectionPart == null) || (selectionPart.getSite() == null)
+		        ? null
+		        : selectionPart.getSite().getSelectionProvider();
+		if (selectionProvider == null) {
+			return;
+		}
+		final IWorkbenchPage page = selectionPart.getSite().getPage();
+		final IViewPart view = page.findView(DiagramGenerationJob.VIEW_ID);
+		if (view instanceof final ISelectionListener listener) {
+			listener.selectionChanged(selectionPart, selectionProvider.getSelection());
+		} else if (page.getActivePart() == selectionPart) {
+			selectionProvider.setSelection(selectionProvider.getSelection());
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package org.palladiosimulator.view.plantuml;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Writes the generation metrics to the error log, enabled by the system property
+ * {@value #PROPERTY}.
+ */
+class DiagramMetricsLog implements GenerationListener {
+
+	static final String PROPERTY = "org.palladiosimulator.view.plantuml.metrics";
+
+	private static final String PLUGIN_ID = "org.palladiosimulator.view.plantuml";
+
+	private static void log(final int severity, final String message) {
+		Platform.getLog(DiagramMetricsLog.class).log(new Status(severity, PLUGIN_ID, message));
+	}
+
+	@Override
+	public void diagramGenerated(final Class<? extends UmlDiagramSupplier> diagram, final int elements,
+	        final long characters, final long allocatedBytes) {
+		DiagramMetricsLog.log(IStatus.INFO, String.format("%s: %d elements, %d characters, %d KiB allocated",
+		        diagram.getSimpleName(), elements, characters, allocatedBytes / 1024));
+	}
+
+	@Override
+	public void identifierCollided(final Class<? extends UmlDiagramSupplier> diagram, final String identifier,
+	        final String name, final String otherName) {
+		DiagramMetricsLog.log(IStatus.WARNING, String.format("%s: \"%s\" and \"%s\" are both shown as %s",
+		        diagram.getSimpleName(), name, otherName, identifier));
+	}
+
+	@Override
+	public void phaseCompleted(final Class<? extends UmlDiagramSupplier> diagram, final Phase phase,
+	        final long nanos) {
+		DiagramMetricsLog.log(IStatus.INFO, String.format("%s: %s took %d ms", diagram.getSimpleName(), phase,
+		        TimeUnit.NANOSECONDS.toMillis(nanos)));
+	}
+
+}
@@ -1,21 +1,100 @@
 package org.palladiosimulator.view.plantuml;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.palladiosimulator.pcm.allocation.Allocation;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.DiagramTextCache;
 import org.palladiosimulator.view.plantuml.generator.PcmAllocationDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
 
 import net.sourceforge.plantuml.text.AbstractDiagramIntent;
 
 public class PcmAllocationDiagramIntent extends AbstractDiagramIntent<Allocation> {
 
-	private final PcmAllocationDiagramGenerator generator;
+	private static PcmAllocationDiagramGenerator getGenerator(final DiagramChangeRecorder recorder,
+	        final Allocation source) {
+		return recorder.getDiagram(source, PcmAllocationDiagramGenerator.class,
+		        (previous, changes) -> new PcmAllocationDiagramGenerator(source,
+		                PcmDiagramIntentProvider.DIAGRAM_OPTIONS, null));
+	}
+
+	/*
+	 * Returns the pages of a large allocation, which are rendered separately instead of laying out all
+	 * resource containers, or the whole diagram of a small one.
+	 */
+	private static List<UmlDiagramSupplier> getPages(final PcmAllocationDiagramGenerator diagram) {
+		final List<UmlDiagramSupplier> pages = new ArrayList<>();
+		diagram.getPages(PcmDiagramIntentProvider.CONTAINERS_PER_PAGE).forEachRemaining(pages::add);
+		return pages.size() > 1 ? pages : List.of(diagram);
+	}
+
+	/**
+	 * Returns the intents of the pages of an allocation, the first page first. Small allocations have
+	 * a single page.
+	 *
+	 * @param source the allocation
+	 * @param cache  the cache of the diagram texts, may be {@code null}
+	 * @return the intents
+	 */
+	static List<PcmAllocationDiagramIntent> getPageIntents(final Allocation source, final DiagramTextCache cache) {
+		final int pageCount = PcmAllocationDiagramIntent.getPages(
+		        PcmAllocationDiagramIntent.getGenerator(DiagramChangeRecorder.getOrAttach(source), source)).size();
+		if (pageCount == 1) {
+			return List.of(new PcmAllocationDiagramIntent(source, cache));
+		}
+		final List<PcmAllocationDiagramIntent> intents = new ArrayList<>();
+		for (int page = 0; page < pageCount; page++) {
+			intents.add(new PcmAllocationDiagramIntent(source, cache, page,
+			        "Page " + (page + 1) + " of " + pageCount));
+		}
+		return intents;
+	}
+
+	private final DiagramTextCache cache;
+	private final String label;
+	private final int page;
 
 	public PcmAllocationDiagramIntent(final Allocation source) {
+		this(source, null);
+	}
+
+	public PcmAllocationDiagramIntent(final Allocation source, final DiagramTextCache cache) {
+		this(source, cache, 0, null);
+	}
+
+	private PcmAllocationDiagramIntent(final Allocation source, final DiagramTextCache cache, final int page,
+	        final String label) {
 		super(source);
-		generator = new PcmAllocationDiagramGenerator(getSource());
+		this.cache = cache;
+		this.page = page;
+		this.label = label;
+	}
+
+	/*
+	 * Collects the page on the UI thread, its text is generated in the background. The allocation may
+	 * have fewer pages since the intent was created.
+	 */
+	private UmlDiagramSupplier getDiagram(final DiagramChangeRecorder recorder) {
+		final Allocation source = getSource();
+		final List<UmlDiagramSupplier> pages = PcmAllocationDiagramIntent
+		        .getPages(PcmAllocationDiagramIntent.getGenerator(recorder, source));
+		final int index = Math.min(page, pages.size() - 1);
+		if (cache == null) {
+			return pages.get(index);
+		}
+		return cache.get(source, PcmAllocationDiagramGenerator.class, index, () -> pages.get(index));
 	}
 
 	@Override
 	public String getDiagramText() {
-		return generator.get();
+		return PcmDiagramIntentProvider.getDiagramText(PcmAllocationDiagramGenerator.class, getSource(),
+		        List.of(getSource(), page), this::getDiagram);
+	}
+
+	@Override
+	public String getLabel() {
+		return label != null ? label : super.getLabel();
 	}
 }
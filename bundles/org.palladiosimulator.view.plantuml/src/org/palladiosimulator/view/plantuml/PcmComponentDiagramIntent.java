@@ -1,21 +1,52 @@
 package org.palladiosimulator.view.plantuml;
 
+import java.util.Set;
+
 import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.DiagramTextCache;
 import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
 
 import net.sourceforge.plantuml.text.AbstractDiagramIntent;
 
 public class PcmComponentDiagramIntent extends AbstractDiagramIntent<Repository> {
 
-	private final PcmComponentDiagramGenerator generator;
+	private final DiagramTextCache cache;
 
 	public PcmComponentDiagramIntent(final Repository source) {
+		this(source, null);
+	}
+
+	public PcmComponentDiagramIntent(final Repository source, final DiagramTextCache cache) {
 		super(source);
-		generator = new PcmComponentDiagramGenerator(getSource());
+		this.cache = cache;
+	}
+
+	/*
+	 * Collects the diagram on the UI thread, its text is generated in the background.
+	 */
+	private UmlDiagramSupplier getDiagram(final DiagramChangeRecorder recorder) {
+		final Repository source = getSource();
+		return recorder.getDiagram(source, UmlDiagramSupplier.class, (previous, changes) -> {
+			if (previous instanceof final PcmComponentDiagramGenerator generator) {
+				return new PcmComponentDiagramGenerator(source, generator, changes,
+				        PcmDiagramIntentProvider.DIAGRAM_OPTIONS);
+			}
+			// A previous diagram is outdated, the cached text would be too.
+			if ((previous != null) || (cache == null)) {
+				return new PcmComponentDiagramGenerator(source, null, Set.of(),
+				        PcmDiagramIntentProvider.DIAGRAM_OPTIONS);
+			}
+			return cache.get(source, PcmComponentDiagramGenerator.class,
+			        () -> new PcmComponentDiagramGenerator(source, null, Set.of(),
+			                PcmDiagramIntentProvider.DIAGRAM_OPTIONS));
+		});
 	}
 
 	@Override
 	public String getDiagramText() {
-		return generator.get();
+		return PcmDiagramIntentProvider.getDiagramText(PcmComponentDiagramGenerator.class, getSource(), getSource(),
+		        this::getDiagram);
 	}
 }
\ No newline at end of file
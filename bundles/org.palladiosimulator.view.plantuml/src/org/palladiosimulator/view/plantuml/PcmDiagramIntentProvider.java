@@ -1,13 +1,24 @@
 package org.palladiosimulator.view.plantuml;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Function;
 
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.ecore.EObject;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 import org.palladiosimulator.pcm.allocation.Allocation;
 import org.palladiosimulator.pcm.repository.Repository;
 import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
+import org.palladiosimulator.view.plantuml.generator.DiagramTextCache;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
 
 import net.sourceforge.plantuml.ecore.AbstractEcoreDiagramIntentProvider;
 import net.sourceforge.plantuml.util.AbstractDiagramIntent;
@@ -15,6 +26,61 @@ import net.sourceforge.plantuml.util.DiagramIntent;
 
 public class PcmDiagramIntentProvider extends AbstractEcoreDiagramIntentProvider {
 
+	/**
+	 * Allocations on more resource containers are split into pages, which are shown as diagrams of
+	 * their own.
+	 */
+	static final int CONTAINERS_PER_PAGE = 25;
+
+	private static final int MAX_CACHED_DIAGRAMS = 256;
+
+	/**
+	 * Larger diagrams are shown at a reduced level of detail, their layout would take too long.
+	 */
+	static final DiagramOptions DIAGRAM_OPTIONS = DiagramOptions.DEFAULT.withElementBudget(2000);
+
+	private static DiagramTextCache cache;
+
+	static {
+		if (Boolean.getBoolean(DiagramMetricsLog.PROPERTY)) {
+			UmlDiagramSupplier.setGenerationListener(new DiagramMetricsLog());
+		}
+	}
+
+	/**
+	 * Returns the diagram text cache, which is stored in the state location of this bundle and is
+	 * invalidated by new versions of the generators.
+	 */
+	private static synchronized DiagramTextCache getCache() {
+		if (cache == null) {
+			final Bundle bundle = FrameworkUtil.getBundle(PcmDiagramIntentProvider.class);
+			final Bundle generatorBundle = FrameworkUtil.getBundle(UmlDiagramSupplier.class);
+			final Path directory = bundle == null ? null
+			        : Platform.getStateLocation(bundle).append("diagrams").toFile().toPath();
+			final String version = generatorBundle == null ? "" : generatorBundle.getVersion().toString();
+			cache = new DiagramTextCache(directory, MAX_CACHED_DIAGRAMS, version);
+		}
+		return cache;
+	}
+
+	/**
+	 * Returns the diagram text of a model or of a page of it and reports the time of the request to
+	 * the generation listener. If it is requested on the UI thread, the recorder is attached and the
+	 * diagram is collected right away, only its text is generated in the background.
+	 */
+	static String getDiagramText(final Class<? extends UmlDiagramSupplier> type, final EObject source,
+	        final Object key, final Function<DiagramChangeRecorder, UmlDiagramSupplier> diagram) {
+		final DiagramChangeRecorder recorder = DiagramChangeRecorder.getOrAttach(source);
+		final GenerationListener listener = UmlDiagramSupplier.getGenerationListener();
+		if (listener == GenerationListener.NONE) {
+			return DiagramGenerationJob.getDiagramText(key, recorder, () -> diagram.apply(recorder));
+		}
+		final long start = java.lang.System.nanoTime();
+		final String result = DiagramGenerationJob.getDiagramText(key, recorder, () -> diagram.apply(recorder));
+		listener.phaseCompleted(type, Phase.REQUEST, java.lang.System.nanoTime() - start);
+		return result;
+	}
+
 	private static boolean isPcmAllocationObject(final Object object) {
 		return (object != null) && (object instanceof Allocation);
 	}
@@ -38,11 +104,12 @@ public class PcmDiagramIntentProvider extends AbstractEcoreDiagramIntentProvider
 	protected Collection<? extends DiagramIntent> getDiagramInfos(final EObject eObject) {
 		final Collection<AbstractDiagramIntent<?>> diagrams = new ArrayList<>();
 		if (PcmDiagramIntentProvider.isPcmRepositoryObject(eObject)) {
-			diagrams.add(new PcmComponentDiagramIntent((Repository) eObject));
+			diagrams.add(new PcmComponentDiagramIntent((Repository) eObject, PcmDiagramIntentProvider.getCache()));
 		} else if (PcmDiagramIntentProvider.isPcmSystemObject(eObject)) {
-			diagrams.add(new PcmSystemDiagramIntent((System) eObject));
+			diagrams.add(new PcmSystemDiagramIntent((System) eObject, PcmDiagramIntentProvider.getCache()));
 		} else if (PcmDiagramIntentProvider.isPcmAllocationObject(eObject)) {
-			diagrams.add(new PcmAllocationDiagramIntent((Allocation) eObject));
+			diagrams.addAll(PcmAllocationDiagramIntent.getPageIntents((Allocation) eObject,
+			        PcmDiagramIntentProvider.getCache()));
 		}
 		return diagrams;
 	}
@@ -1,21 +1,44 @@
 package org.palladiosimulator.view.plantuml;
 
 import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.DiagramTextCache;
 import org.palladiosimulator.view.plantuml.generator.PcmSystemDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
 
 import net.sourceforge.plantuml.text.AbstractDiagramIntent;
 
 public class PcmSystemDiagramIntent extends AbstractDiagramIntent<System> {
 
-	private final PcmSystemDiagramGenerator generator;
+	private final DiagramTextCache cache;
 
 	public PcmSystemDiagramIntent(final System source) {
+		this(source, null);
+	}
+
+	public PcmSystemDiagramIntent(final System source, final DiagramTextCache cache) {
 		super(source);
-		generator = new PcmSystemDiagramGenerator(getSource());
+		this.cache = cache;
+	}
+
+	/*
+	 * Collects the diagram on the UI thread, its text is generated in the background.
+	 */
+	private UmlDiagramSupplier getDiagram(final DiagramChangeRecorder recorder) {
+		final System source = getSource();
+		return recorder.getDiagram(source, UmlDiagramSupplier.class, (previous, changes) -> {
+			// A previous diagram is outdated, the cached text would be too.
+			if ((previous != null) || (cache == null)) {
+				return new PcmSystemDiagramGenerator(source, PcmDiagramIntentProvider.DIAGRAM_OPTIONS);
+			}
+			return cache.get(source, PcmSystemDiagramGenerator.class,
+			        () -> new PcmSystemDiagramGenerator(source, PcmDiagramIntentProvider.DIAGRAM_OPTIONS));
+		});
 	}
 
 	@Override
 	public String getDiagramText() {
-		return generator.get();
+		return PcmDiagramIntentProvider.getDiagramText(PcmSystemDiagramGenerator.class, getSource(), getSource(),
+		        this::getDiagram);
 	}
 }
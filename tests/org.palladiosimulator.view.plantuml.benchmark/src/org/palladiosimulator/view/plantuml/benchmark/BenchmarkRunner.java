@@ -0,0 +1,52 @@
+package org.palladiosimulator.view.plantuml.benchmark;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link GeneratorBenchmark} with the GC profiler and prints the throughput and the
+ * allocations per diagram for every diagram type and model size.
+ *
+ * The model sizes can be given as arguments, e.g. {@code 10 1000} for a quick run. The runner is
+ * started as a Java application from the workspace, e.g. with {@code BenchmarkRunner.launch}. The
+ * benchmarks are generated by the JMH annotation processor, which the project runs through its
+ * factory path, with the JMH jars in the local Maven repository ({@code M2_REPO}). JMH is not part
+ * of the release target platform, the workspace has to use {@code benchmark.target} of the target
+ * platform project, which adds JMH to it.
+ */
+public class BenchmarkRunner {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final String BENCHMARK_LIST = "/META-INF/BenchmarkList";
+
+    public static void main(final String[] args) throws RunnerException {
+        if (BenchmarkRunner.class.getResource(BENCHMARK_LIST) == null) {
+            throw new IllegalStateException(BENCHMARK_LIST
+                    + " was not generated, enable the annotation processing of the project (.factorypath).");
+        }
+        final ChainedOptionsBuilder options = new OptionsBuilder().include(GeneratorBenchmark.class.getName())
+            .addProfiler(GCProfiler.class);
+        if (args.length > 0) {
+            options.param("size", args);
+        }
+        final Collection<RunResult> results = new Runner(options.build()).run();
+
+        System.out.println();
+        System.out.println("benchmark\tsize\tops/s\tbytes/op");
+        for (final RunResult result : results) {
+            final String benchmark = result.getParams().getBenchmark();
+            final Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_METRIC);
+            System.out.printf("%s\t%s\t%.2f\t%.0f%n", benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                    result.getParams().getParam("size"), result.getPrimaryResult().getScore(),
+                    allocation == null ? Double.NaN : allocation.getScore());
+        }
+    }
+
+}
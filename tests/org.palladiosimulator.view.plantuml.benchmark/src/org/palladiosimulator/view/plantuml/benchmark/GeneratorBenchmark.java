@@ -0,0 +1,71 @@
+package org.palladiosimulator.view.plantuml.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
+import org.palladiosimulator.view.plantuml.generator.PcmAllocationDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.PcmSystemDiagramGenerator;
+
+/**
+ * Benchmarks the generation of the component, system and allocation diagrams of synthetic models
+ * of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GeneratorBenchmark {
+
+    private static final long SEED = 42;
+
+    /**
+     * The number of basic components, see {@link SyntheticModelGenerator.Configuration#ofSize(int)}.
+     */
+    @Param({ "10", "100", "1000", "10000", "50000" })
+    public int size;
+
+    private SyntheticModelGenerator.Models models;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        models = new SyntheticModelGenerator(SyntheticModelGenerator.Configuration.ofSize(size), SEED).generate();
+    }
+
+    @Benchmark
+    public String allocationDiagram() {
+        return new PcmAllocationDiagramGenerator(models.allocation()).get();
+    }
+
+    @Benchmark
+    public String componentDiagram() {
+        return new PcmComponentDiagramGenerator(models.repository()).get();
+    }
+
+    @Benchmark
+    public String componentDiagramSequential() {
+        return new PcmComponentDiagramGenerator(models.repository(), null, Set.of(),
+                DiagramOptions.DEFAULT.withParallel(false)).get();
+    }
+
+    @Benchmark
+    public String systemDiagram() {
+        return new PcmSystemDiagramGenerator(models.system()).get();
+    }
+
+}
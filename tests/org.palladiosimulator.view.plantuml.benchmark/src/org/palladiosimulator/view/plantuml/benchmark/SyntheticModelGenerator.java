@@ -0,0 +1,395 @@
+package org.palladiosimulator.view.plantuml.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.palladiosimulator.pcm.allocation.Allocation;
+import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.allocation.AllocationFactory;
+import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.ComposedStructure;
+import org.palladiosimulator.pcm.core.composition.CompositionFactory;
+import org.palladiosimulator.pcm.core.composition.ProvidedDelegationConnector;
+import org.palladiosimulator.pcm.core.composition.RequiredDelegationConnector;
+import org.palladiosimulator.pcm.core.entity.ComposedProvidingRequiringEntity;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.CompositeComponent;
+import org.palladiosimulator.pcm.repository.OperationInterface;
+import org.palladiosimulator.pcm.repository.OperationProvidedRole;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.ProvidedRole;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.repository.RepositoryComponent;
+import org.palladiosimulator.pcm.repository.RepositoryFactory;
+import org.palladiosimulator.pcm.repository.RequiredRole;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceEnvironment;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.pcm.system.SystemFactory;
+
+/**
+ * Generates synthetic PCM models of a configurable size for benchmarks and profiling.
+ *
+ * The models are fully determined by the configuration and the seed. Basic components provide and
+ * require randomly chosen interfaces. Composite components are nested up to the configured depth:
+ * a composite on level {@code n} contains assembly contexts of components on level {@code n - 1},
+ * where level 0 consists of the basic components, and delegates its roles to them. The system
+ * instantiates randomly chosen components, connects required roles to contexts providing the same
+ * interface and deploys the contexts on randomly chosen resource containers.
+ */
+public class SyntheticModelGenerator {
+
+    /**
+     * The size of the generated models.
+     *
+     * @param interfaces           the number of interfaces
+     * @param basicComponents      the number of basic components
+     * @param compositeComponents  the number of composite components
+     * @param nestingDepth         the maximum nesting depth of composite components, note that the
+     *                             component diagram supports composites of basic components only
+     * @param innerComponents      the number of assembly contexts per composite component
+     * @param providedRoles        the number of provided roles per component
+     * @param requiredRoles        the number of required roles per component
+     * @param assemblyContexts     the number of assembly contexts in the system
+     * @param assemblyConnectors   the maximum number of assembly connectors in the system, required
+     *                             roles without a matching provider are not connected
+     * @param delegationConnectors the number of provided roles of the system and their delegation
+     *                             connectors
+     * @param resourceContainers   the number of resource containers
+     */
+    public record Configuration(int interfaces, int basicComponents, int compositeComponents, int nestingDepth,
+            int innerComponents, int providedRoles, int requiredRoles, int assemblyContexts, int assemblyConnectors,
+            int delegationConnectors, int resourceContainers) {
+
+        /**
+         * Creates a configuration.
+         */
+        public Configuration {
+            if ((interfaces < 1) || (basicComponents < 1) || (providedRoles < 1)) {
+                throw new IllegalArgumentException("Components must provide at least one interface.");
+            }
+            if ((compositeComponents > 0) && ((nestingDepth < 1) || (innerComponents < 1))) {
+                throw new IllegalArgumentException("Composite components must be nested and contain components.");
+            }
+            if ((assemblyContexts > 0) && (resourceContainers < 1)) {
+                throw new IllegalArgumentException("Assembly contexts must be deployed on a resource container.");
+            }
+        }
+
+        /**
+         * Creates a configuration in which the numbers of interfaces, components, assembly contexts
+         * and connectors grow linearly with a given size.
+         *
+         * @param size the number of basic components
+         * @return the configuration
+         */
+        public static Configuration ofSize(final int size) {
+            return new Configuration(size, size, size / 10, 1, 4, 1, 3, size, 3 * size, Math.min(size, 10),
+                    Math.max(1, size / 8));
+        }
+    }
+
+    /**
+     * The generated models.
+     *
+     * @param repository  the repository
+     * @param system      the system
+     * @param environment the resource environment
+     * @param allocation  the allocation
+     */
+    public record Models(Repository repository, System system, ResourceEnvironment environment,
+            Allocation allocation) {
+    }
+
+    private static final String USAGE = "Usage: <target directory> <size> [seed]";
+
+    /**
+     * Generates models of a given size and saves them as XMI.
+     *
+     * @param args the arguments {@code <target directory> <size> [seed]}
+     * @throws IOException if the models cannot be saved
+     */
+    public static void main(final String[] args) throws IOException {
+        if ((args.length < 2) || (args.length > 3)) {
+            java.lang.System.err.println(USAGE);
+            return;
+        }
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        final Models models = new SyntheticModelGenerator(Configuration.ofSize(Integer.parseInt(args[1])), seed)
+            .generate();
+        save(models, Path.of(args[0]), "synthetic");
+    }
+
+    /**
+     * Saves models as XMI files into a directory.
+     *
+     * @param models    the models
+     * @param directory the directory
+     * @param name      the name of the files, the extension denotes the model type
+     * @throws IOException if the models cannot be saved
+     */
+    public static void save(final Models models, final Path directory, final String name) throws IOException {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry()
+            .getExtensionToFactoryMap()
+            .put(Resource.Factory.Registry.DEFAULT_EXTENSION, new XMIResourceFactoryImpl());
+        final List<Resource> resources = List.of(
+                createResource(resourceSet, directory, name + ".repository", models.repository()),
+                createResource(resourceSet, directory, name + ".system", models.system()),
+                createResource(resourceSet, directory, name + ".resourceenvironment", models.environment()),
+                createResource(resourceSet, directory, name + ".allocation", models.allocation()));
+        for (final Resource resource : resources) {
+            resource.save(null);
+        }
+    }
+
+    private static Resource createResource(final ResourceSet resourceSet, final Path directory, final String fileName,
+            final EObject content) {
+        final Resource resource = resourceSet.createResource(URI.createFileURI(directory.resolve(fileName)
+            .toAbsolutePath()
+            .toString()));
+        resource.getContents().add(content);
+        return resource;
+    }
+
+    private final Configuration configuration;
+    private final Map<OperationInterface, List<AssemblyContext>> providers = new HashMap<>();
+    private Random random;
+    private final long seed;
+
+    /**
+     * Creates a generator.
+     *
+     * @param configuration the size of the models
+     * @param seed          the seed of the random choices
+     */
+    public SyntheticModelGenerator(final Configuration configuration, final long seed) {
+        this.configuration = configuration;
+        this.seed = seed;
+    }
+
+    private void addProvidedDelegation(final ComposedProvidingRequiringEntity structure, final AssemblyContext inner,
+            final String name) {
+        // The generated components only have operation roles
+        final OperationProvidedRole innerRole = (OperationProvidedRole) choose(
+                inner.getEncapsulatedComponent__AssemblyContext()
+                    .getProvidedRoles_InterfaceProvidingEntity());
+        final OperationProvidedRole outerRole = RepositoryFactory.eINSTANCE.createOperationProvidedRole();
+        outerRole.setEntityName(name);
+        outerRole.setProvidedInterface__OperationProvidedRole(innerRole.getProvidedInterface__OperationProvidedRole());
+        structure.getProvidedRoles_InterfaceProvidingEntity().add(outerRole);
+
+        final ProvidedDelegationConnector connector = CompositionFactory.eINSTANCE.createProvidedDelegationConnector();
+        connector.setEntityName("delegate_" + name);
+        connector.setAssemblyContext_ProvidedDelegationConnector(inner);
+        connector.setInnerProvidedRole_ProvidedDelegationConnector(innerRole);
+        connector.setOuterProvidedRole_ProvidedDelegationConnector(outerRole);
+        structure.getConnectors__ComposedStructure().add(connector);
+    }
+
+    private void addRequiredDelegation(final CompositeComponent composite, final AssemblyContext inner,
+            final String name) {
+        final List<RequiredRole> innerRoles = inner.getEncapsulatedComponent__AssemblyContext()
+            .getRequiredRoles_InterfaceRequiringEntity();
+        if (innerRoles.isEmpty()) {
+            return;
+        }
+        final OperationRequiredRole innerRole = (OperationRequiredRole) choose(innerRoles);
+        final OperationRequiredRole outerRole = RepositoryFactory.eINSTANCE.createOperationRequiredRole();
+        outerRole.setEntityName(name);
+        outerRole.setRequiredInterface__OperationRequiredRole(innerRole.getRequiredInterface__OperationRequiredRole());
+        composite.getRequiredRoles_InterfaceRequiringEntity().add(outerRole);
+
+        final RequiredDelegationConnector connector = CompositionFactory.eINSTANCE.createRequiredDelegationConnector();
+        connector.setEntityName("delegate_" + name);
+        connector.setAssemblyContext_RequiredDelegationConnector(inner);
+        connector.setInnerRequiredRole_RequiredDelegationConnector(innerRole);
+        connector.setOuterRequiredRole_RequiredDelegationConnector(outerRole);
+        composite.getConnectors__ComposedStructure().add(connector);
+    }
+
+    private <T> T choose(final List<T> elements) {
+        return elements.get(random.nextInt(elements.size()));
+    }
+
+    private AssemblyContext createAssemblyContext(final ComposedStructure structure,
+            final RepositoryComponent component) {
+        final AssemblyContext context = CompositionFactory.eINSTANCE.createAssemblyContext();
+        context.setEntityName("Assembly_" + component.getEntityName() + "_"
+                + structure.getAssemblyContexts__ComposedStructure().size());
+        context.setEncapsulatedComponent__AssemblyContext(component);
+        structure.getAssemblyContexts__ComposedStructure().add(context);
+        return context;
+    }
+
+    private Allocation createAllocation(final System system, final ResourceEnvironment environment) {
+        final Allocation allocation = AllocationFactory.eINSTANCE.createAllocation();
+        allocation.setEntityName("Allocation");
+        allocation.setSystem_Allocation(system);
+        allocation.setTargetResourceEnvironment_Allocation(environment);
+        for (final AssemblyContext assemblyContext : system.getAssemblyContexts__ComposedStructure()) {
+            final AllocationContext context = AllocationFactory.eINSTANCE.createAllocationContext();
+            context.setEntityName("Allocation_" + assemblyContext.getEntityName());
+            context.setAssemblyContext_AllocationContext(assemblyContext);
+            context.setResourceContainer_AllocationContext(
+                    choose(environment.getResourceContainer_ResourceEnvironment()));
+            allocation.getAllocationContexts_Allocation().add(context);
+        }
+        return allocation;
+    }
+
+    private ResourceEnvironment createEnvironment() {
+        final ResourceEnvironment environment = ResourceenvironmentFactory.eINSTANCE.createResourceEnvironment();
+        environment.setEntityName("ResourceEnvironment");
+        for (int i = 0; i < configuration.resourceContainers(); i++) {
+            final ResourceContainer container = ResourceenvironmentFactory.eINSTANCE.createResourceContainer();
+            container.setEntityName("Container" + i);
+            environment.getResourceContainer_ResourceEnvironment().add(container);
+        }
+        return environment;
+    }
+
+    private Repository createRepository() {
+        final RepositoryFactory factory = RepositoryFactory.eINSTANCE;
+        final Repository repository = factory.createRepository();
+        repository.setEntityName("Repository");
+        final List<OperationInterface> ifaces = new ArrayList<>();
+        for (int i = 0; i < configuration.interfaces(); i++) {
+            final OperationInterface iface = factory.createOperationInterface();
+            iface.setEntityName("IService" + i);
+            repository.getInterfaces__Repository().add(iface);
+            ifaces.add(iface);
+        }
+
+        final List<List<RepositoryComponent>> levels = new ArrayList<>();
+        levels.add(new ArrayList<>());
+        for (int i = 0; i < configuration.basicComponents(); i++) {
+            final BasicComponent component = factory.createBasicComponent();
+            component.setEntityName("Service" + i);
+            for (int j = 0; j < configuration.providedRoles(); j++) {
+                final OperationProvidedRole role = factory.createOperationProvidedRole();
+                role.setEntityName("provides" + i + "." + j);
+                role.setProvidedInterface__OperationProvidedRole(choose(ifaces));
+                component.getProvidedRoles_InterfaceProvidingEntity().add(role);
+            }
+            for (int j = 0; j < configuration.requiredRoles(); j++) {
+                final OperationRequiredRole role = factory.createOperationRequiredRole();
+                role.setEntityName("requires" + i + "." + j);
+                role.setRequiredInterface__OperationRequiredRole(choose(ifaces));
+                component.getRequiredRoles_InterfaceRequiringEntity().add(role);
+            }
+            repository.getComponents__Repository().add(component);
+            levels.get(0).add(component);
+        }
+
+        for (int i = 0; i < configuration.compositeComponents(); i++) {
+            // Distribute the composites over the levels, every level contains components of the level below
+            final int level = 1 + (i % configuration.nestingDepth());
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            final List<RepositoryComponent> candidates = levels.get(level - 1).isEmpty() ? levels.get(0)
+                    : levels.get(level - 1);
+
+            final CompositeComponent composite = factory.createCompositeComponent();
+            composite.setEntityName("Composite" + i);
+            final List<AssemblyContext> innerContexts = new ArrayList<>();
+            for (int j = 0; j < configuration.innerComponents(); j++) {
+                innerContexts.add(createAssemblyContext(composite, choose(candidates)));
+            }
+            for (int j = 0; j < configuration.providedRoles(); j++) {
+                addProvidedDelegation(composite, choose(innerContexts), "provides" + i + "." + j);
+            }
+            for (int j = 0; j < configuration.requiredRoles(); j++) {
+                addRequiredDelegation(composite, choose(innerContexts), "requires" + i + "." + j);
+            }
+            repository.getComponents__Repository().add(composite);
+            levels.get(level).add(composite);
+        }
+        return repository;
+    }
+
+    private System createSystem(final Repository repository) {
+        final System system = SystemFactory.eINSTANCE.createSystem();
+        system.setEntityName("System");
+        final List<RepositoryComponent> components = repository.getComponents__Repository();
+        final List<AssemblyContext> contexts = new ArrayList<>();
+        for (int i = 0; i < configuration.assemblyContexts(); i++) {
+            final AssemblyContext context = createAssemblyContext(system, choose(components));
+            for (final ProvidedRole role : context.getEncapsulatedComponent__AssemblyContext()
+                .getProvidedRoles_InterfaceProvidingEntity()) {
+                providers.computeIfAbsent(((OperationProvidedRole) role).getProvidedInterface__OperationProvidedRole(),
+                        x -> new ArrayList<>()).add(context);
+            }
+            contexts.add(context);
+        }
+        if (contexts.isEmpty()) {
+            return system;
+        }
+
+        for (int i = 0; i < configuration.assemblyConnectors(); i++) {
+            final AssemblyContext requiring = choose(contexts);
+            final List<RequiredRole> requiredRoles = requiring.getEncapsulatedComponent__AssemblyContext()
+                .getRequiredRoles_InterfaceRequiringEntity();
+            if (requiredRoles.isEmpty()) {
+                continue;
+            }
+            final OperationRequiredRole requiredRole = (OperationRequiredRole) choose(requiredRoles);
+            final List<AssemblyContext> providing = providers
+                .get(requiredRole.getRequiredInterface__OperationRequiredRole());
+            if (providing == null) {
+                continue;
+            }
+            final AssemblyContext provider = choose(providing);
+            final OperationProvidedRole providedRole = provider.getEncapsulatedComponent__AssemblyContext()
+                .getProvidedRoles_InterfaceProvidingEntity()
+                .stream()
+                .map(OperationProvidedRole.class::cast)
+                .filter(x -> x.getProvidedInterface__OperationProvidedRole() == requiredRole
+                    .getRequiredInterface__OperationRequiredRole())
+                .findFirst()
+                .orElseThrow();
+
+            final AssemblyConnector connector = CompositionFactory.eINSTANCE.createAssemblyConnector();
+            connector.setEntityName("Connector" + i);
+            connector.setRequiringAssemblyContext_AssemblyConnector(requiring);
+            connector.setRequiredRole_AssemblyConnector(requiredRole);
+            connector.setProvidingAssemblyContext_AssemblyConnector(provider);
+            connector.setProvidedRole_AssemblyConnector(providedRole);
+            system.getConnectors__ComposedStructure().add(connector);
+        }
+
+        for (int i = 0; i < configuration.delegationConnectors(); i++) {
+            addProvidedDelegation(system, choose(contexts), "systemProvides" + i);
+        }
+        return system;
+    }
+
+    /**
+     * Generates the models.
+     *
+     * @return the models
+     */
+    public Models generate() {
+        providers.clear();
+        random = new Random(seed);
+        final Repository repository = createRepository();
+        final System system = createSystem(repository);
+        final ResourceEnvironment environment = createEnvironment();
+        return new Models(repository, system, environment, createAllocation(system, environment));
+    }
+
+}
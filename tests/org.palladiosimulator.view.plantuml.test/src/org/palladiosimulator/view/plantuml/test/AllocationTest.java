@@ -1,11 +1,15 @@
 package org.palladiosimulator.view.plantuml.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -14,10 +18,21 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.palladiosimulator.pcm.allocation.Allocation;
 import org.palladiosimulator.pcm.allocation.AllocationContext;
+import org.palladiosimulator.pcm.allocation.AllocationFactory;
 import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
+import org.palladiosimulator.pcm.core.composition.AssemblyContext;
+import org.palladiosimulator.pcm.core.composition.CompositionFactory;
 import org.palladiosimulator.pcm.core.composition.Connector;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.RepositoryFactory;
 import org.palladiosimulator.pcm.resourceenvironment.ResourceContainer;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceEnvironment;
+import org.palladiosimulator.pcm.resourceenvironment.ResourceenvironmentFactory;
+import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.pcm.system.SystemFactory;
+import org.palladiosimulator.view.plantuml.generator.AssemblyGraph;
 import org.palladiosimulator.view.plantuml.generator.PcmAllocationDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
 
 /**
  * @author Sonya Voneva
@@ -27,6 +42,51 @@ class AllocationTest extends AbstractPlantUmlTest {
     private static Allocation allocation;
     private static String diagramText;
 
+    private static AssemblyContext createAssemblyContext(final System system, final ResourceEnvironment environment,
+            final Allocation fanOut, final String name) {
+        final BasicComponent component = RepositoryFactory.eINSTANCE.createBasicComponent();
+        component.setEntityName(name);
+        final AssemblyContext assemblyContext = CompositionFactory.eINSTANCE.createAssemblyContext();
+        assemblyContext.setEncapsulatedComponent__AssemblyContext(component);
+        system.getAssemblyContexts__ComposedStructure()
+            .add(assemblyContext);
+
+        final ResourceContainer container = ResourceenvironmentFactory.eINSTANCE.createResourceContainer();
+        container.setEntityName(name);
+        environment.getResourceContainer_ResourceEnvironment()
+            .add(container);
+        final AllocationContext allocationContext = AllocationFactory.eINSTANCE.createAllocationContext();
+        allocationContext.setAssemblyContext_AllocationContext(assemblyContext);
+        allocationContext.setResourceContainer_AllocationContext(container);
+        fanOut.getAllocationContexts_Allocation()
+            .add(allocationContext);
+        return assemblyContext;
+    }
+
+    /**
+     * Creates an allocation of a provider and two requirers of it, each on its own resource
+     * container.
+     */
+    private static Allocation createFanOut() {
+        final System system = SystemFactory.eINSTANCE.createSystem();
+        final ResourceEnvironment environment = ResourceenvironmentFactory.eINSTANCE.createResourceEnvironment();
+        final Allocation fanOut = AllocationFactory.eINSTANCE.createAllocation();
+        fanOut.setSystem_Allocation(system);
+        fanOut.setTargetResourceEnvironment_Allocation(environment);
+
+        final AssemblyContext provider = createAssemblyContext(system, environment, fanOut, "Provider");
+        for (final String name : List.of("RequirerA", "RequirerB")) {
+            final AssemblyConnector connector = CompositionFactory.eINSTANCE.createAssemblyConnector();
+            connector.setEntityName(name + "Connector");
+            connector.setProvidingAssemblyContext_AssemblyConnector(provider);
+            connector.setRequiringAssemblyContext_AssemblyConnector(
+                    createAssemblyContext(system, environment, fanOut, name));
+            system.getConnectors__ComposedStructure()
+                .add(connector);
+        }
+        return fanOut;
+    }
+
     /**
      * @throws java.lang.Exception
      */
@@ -69,6 +129,68 @@ class AllocationTest extends AbstractPlantUmlTest {
         assertEquals(occurrencesOfContainerKeyword, containers.size());
     }
 
+    /**
+     * Test if an allocation without allocation contexts creates a diagram without pages
+     */
+    @Test
+    void testEmpty() {
+        final Allocation empty = AllocationFactory.eINSTANCE.createAllocation();
+        empty.setSystem_Allocation(SystemFactory.eINSTANCE.createSystem());
+        final PcmAllocationDiagramGenerator generator = new PcmAllocationDiagramGenerator(empty);
+        assertNotNull(generator.get());
+        assertFalse(generator.getPages(2)
+            .hasNext());
+    }
+
+    /**
+     * Test if a providing component is connected to all of its requiring components
+     */
+    @Test
+    void testMultipleRequirers() {
+        final String text = new PcmAllocationDiagramGenerator(createFanOut()).get();
+        assertTrue(text.contains("[nodeProvider] - [nodeRequirerA]\n"));
+        assertTrue(text.contains("[nodeProvider] - [nodeRequirerB]\n"));
+    }
+
+    /**
+     * Test if the pages contain the components of their resource containers and stubs of the
+     * connected components on other pages
+     */
+    @Test
+    void testPages() {
+        final Iterator<UmlDiagramSupplier> pages = new PcmAllocationDiagramGenerator(createFanOut()).getPages(2);
+
+        final String firstPage = pages.next().get();
+        assertTrue(firstPage.contains("node nodeProvider {"));
+        assertTrue(firstPage.contains("node nodeRequirerA {"));
+        assertTrue(firstPage.contains("[nodeProvider] - [nodeRequirerA]\n"));
+        assertTrue(firstPage.contains("node nodeRequirerB <<page 2>>\n"));
+        assertTrue(firstPage.contains("[nodeProvider] .. [nodeRequirerB]\n"));
+
+        final String secondPage = pages.next().get();
+        assertTrue(secondPage.contains("node nodeRequirerB {"));
+        assertTrue(secondPage.contains("node nodeProvider <<page 1>>\n"));
+        assertTrue(secondPage.contains("[nodeProvider] .. [nodeRequirerB]\n"));
+        assertFalse(secondPage.contains("nodeRequirerA"));
+        assertFalse(pages.hasNext());
+    }
+
+    /**
+     * Test if the components of the system are numbered in the order of their assembly contexts and
+     * if a shared assembly graph creates the same diagram
+     */
+    @Test
+    void testSharedAssemblyGraph() {
+        final Allocation fanOut = createFanOut();
+        final AssemblyGraph graph = new AssemblyGraph(fanOut.getSystem_Allocation());
+        assertEquals(3, graph.getAssembledComponentCount());
+        assertEquals(2, graph.getEdgeEnd(0) - graph.getEdgeStart(0));
+        assertEquals(2, graph.getEdgeCount());
+
+        assertEquals(new PcmAllocationDiagramGenerator(fanOut).get(),
+                new PcmAllocationDiagramGenerator(fanOut, graph).get());
+    }
+
     /**
      * Test if starting and ending tags are there
      */
@@ -79,4 +201,14 @@ class AllocationTest extends AbstractPlantUmlTest {
                 "@startuml".equals(splittedText.get(0)) && "@enduml".equals(splittedText.get(splittedText.size() - 1)));
     }
 
+    /**
+     * Test if the streamed diagram text equals the generated text
+     */
+    @Test
+    void testWriteTo() throws IOException {
+        final StringWriter writer = new StringWriter();
+        new PcmAllocationDiagramGenerator(allocation).writeTo(writer);
+        assertEquals(diagramText, writer.toString());
+    }
+
 }
@@ -0,0 +1,49 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Tests the cancellation of diagram generations.
+ */
+class CancellationTest {
+
+    private static final Repository REPOSITORY = RepositoryFixture.createRepository(10);
+
+    /**
+     * Test if a cancelled generation throws
+     */
+    @Test
+    void testCancelled() {
+        assertThrows(CancellationException.class, () -> UmlDiagramSupplier.generateCancellable(() -> true,
+                () -> new PcmComponentDiagramGenerator(REPOSITORY)));
+    }
+
+    /**
+     * Test if a generator whose emission was cancelled can be written again
+     */
+    @Test
+    void testGeneratedAfterCancellation() {
+        final PcmComponentDiagramGenerator generator = new PcmComponentDiagramGenerator(REPOSITORY);
+        assertThrows(CancellationException.class,
+                () -> UmlDiagramSupplier.generateCancellable(() -> true, generator::get));
+        assertEquals(new PcmComponentDiagramGenerator(REPOSITORY).get(), generator.get());
+    }
+
+    /**
+     * Test if a generation that is not cancelled returns the diagram text
+     */
+    @Test
+    void testNotCancelled() {
+        assertEquals(new PcmComponentDiagramGenerator(REPOSITORY).get(),
+                UmlDiagramSupplier.generateCancellable(() -> false, new PcmComponentDiagramGenerator(REPOSITORY)::get));
+    }
+
+}
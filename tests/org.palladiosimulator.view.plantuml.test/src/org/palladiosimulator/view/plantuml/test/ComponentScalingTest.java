@@ -0,0 +1,40 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+
+/**
+ * Tests the component diagrams of growing repositories. The generation time is measured by the
+ * benchmarks of the generators.
+ */
+class ComponentScalingTest {
+
+    private static final int[] INTERFACE_COUNTS = { 250, 500, 1000, 2000 };
+
+    /**
+     * Test if the diagram grows linearly with the repository, by the same number of lines per
+     * component and one requiring line per required role
+     */
+    @Test
+    void testLinearSize() {
+        final long[] lineCounts = new long[INTERFACE_COUNTS.length];
+        for (int i = 0; i < INTERFACE_COUNTS.length; i++) {
+            final String diagramText = new PcmComponentDiagramGenerator(RepositoryFixture.createRepository(INTERFACE_COUNTS[i])).get();
+            lineCounts[i] = diagramText.lines()
+                .count();
+            assertEquals(INTERFACE_COUNTS[i] * (RepositoryFixture.ROLES_PER_COMPONENT - 1),
+                    AbstractPlantUmlTest.countOccurrences(diagramText, "requires"));
+        }
+
+        final long linesPerComponent = (lineCounts[1] - lineCounts[0]) / (INTERFACE_COUNTS[1] - INTERFACE_COUNTS[0]);
+        assertTrue(linesPerComponent > 0);
+        for (int i = 0; i < INTERFACE_COUNTS.length; i++) {
+            assertEquals(lineCounts[0] + (linesPerComponent * (INTERFACE_COUNTS[i] - INTERFACE_COUNTS[0])),
+                    lineCounts[i]);
+        }
+    }
+
+}
@@ -4,17 +4,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.util.EContentAdapter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.Interface;
+import org.palladiosimulator.pcm.repository.OperationProvidedRole;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
 import org.palladiosimulator.pcm.repository.ProvidedRole;
 import org.palladiosimulator.pcm.repository.Repository;
 import org.palladiosimulator.pcm.repository.RepositoryComponent;
 import org.palladiosimulator.pcm.repository.RequiredRole;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
 import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
 
 /**
@@ -43,6 +54,35 @@ class ComponentTest extends AbstractPlantUmlTest {
         }
     }
 
+    /**
+     * Test if every interface is declared once, although it is linked by several roles
+     */
+    @Test
+    void testInterfaceDeclarations() {
+        final Set<String> componentNames = new HashSet<>();
+        final Set<Interface> interfaces = new HashSet<>();
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            componentNames.add(component.getEntityName());
+            for (final ProvidedRole role : component.getProvidedRoles_InterfaceProvidingEntity()) {
+                if (role instanceof final OperationProvidedRole provRole) {
+                    interfaces.add(provRole.getProvidedInterface__OperationProvidedRole());
+                }
+            }
+            for (final RequiredRole role : component.getRequiredRoles_InterfaceRequiringEntity()) {
+                if (role instanceof final OperationRequiredRole reqRole) {
+                    interfaces.add(reqRole.getRequiredInterface__OperationRequiredRole());
+                }
+            }
+        }
+
+        for (final Interface iface : interfaces) {
+            // Interfaces named like a component are linked to the component instead
+            final int expected = componentNames.contains(iface.getEntityName()) ? 0 : 1;
+            assertEquals(expected, AbstractPlantUmlTest.countOccurrences(diagramText,
+                    "interface \"" + iface.getEntityName() + "\""), iface.getEntityName());
+        }
+    }
+
     /**
      * Test if all providing roles are in the diagram text
      */
@@ -58,6 +98,32 @@ class ComponentTest extends AbstractPlantUmlTest {
 
     }
 
+    /**
+     * Test if the generation does not change the repository
+     */
+    @Test
+    void testReadOnly() {
+        final List<Notification> notifications = new ArrayList<>();
+        final EContentAdapter adapter = new EContentAdapter() {
+            @Override
+            public void notifyChanged(final Notification notification) {
+                super.notifyChanged(notification);
+                if (!notification.isTouch()) {
+                    notifications.add(notification);
+                }
+            }
+        };
+        repository.eAdapters()
+            .add(adapter);
+        try {
+            new PcmComponentDiagramGenerator(repository).get();
+        } finally {
+            repository.eAdapters()
+                .remove(adapter);
+        }
+        assertEquals(List.of(), notifications);
+    }
+
     /**
      * Test if the Repository was loaded an the diagram text was generated
      */
@@ -82,6 +148,18 @@ class ComponentTest extends AbstractPlantUmlTest {
 
     }
 
+    /**
+     * Test if short aliases shorten the diagram text without changing its lines
+     */
+    @Test
+    void testShortAliases() {
+        final String aliasedText = new PcmComponentDiagramGenerator(repository, null, Set.of(),
+                DiagramOptions.DEFAULT.withShortAliases(true)).get();
+        assertEquals(diagramText.split("\n").length, aliasedText.split("\n").length);
+        assertTrue(aliasedText.length() < diagramText.length());
+        assertEquals(0, AbstractPlantUmlTest.countOccurrences(aliasedText, "interface."));
+    }
+
     /**
      * Test if starting and ending tags are there
      */
@@ -92,4 +170,14 @@ class ComponentTest extends AbstractPlantUmlTest {
                 "@startuml".equals(splittedText.get(0)) && "@enduml".equals(splittedText.get(splittedText.size() - 1)));
     }
 
+    /**
+     * Test if the streamed diagram text equals the generated text
+     */
+    @Test
+    void testWriteTo() throws IOException {
+        final StringWriter writer = new StringWriter();
+        new PcmComponentDiagramGenerator(repository).writeTo(writer);
+        assertEquals(diagramText, writer.toString());
+    }
+
 }
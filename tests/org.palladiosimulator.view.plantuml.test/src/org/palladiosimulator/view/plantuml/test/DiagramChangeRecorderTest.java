@@ -0,0 +1,115 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.repository.RepositoryComponent;
+import org.palladiosimulator.pcm.repository.Role;
+import org.palladiosimulator.view.plantuml.generator.DiagramChangeRecorder;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+
+/**
+ * Tests the recording of model changes between diagram generations.
+ */
+class DiagramChangeRecorderTest {
+
+    private final List<PcmComponentDiagramGenerator> previousDiagrams = new ArrayList<>();
+    private final List<Set<EObject>> recordedChanges = new ArrayList<>();
+    private Repository repository;
+
+    private PcmComponentDiagramGenerator getDiagram() {
+        return DiagramChangeRecorder.getOrAttach(repository)
+            .getDiagram(repository, PcmComponentDiagramGenerator.class, (previous, changes) -> {
+                previousDiagrams.add(previous);
+                recordedChanges.add(changes);
+                return new PcmComponentDiagramGenerator(repository, previous, changes);
+            });
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = RepositoryFixture.createRepository(10);
+    }
+
+    /**
+     * Test if a changed model is generated from the previous diagram and the changed elements, which
+     * are not passed again to the next generation
+     */
+    @Test
+    void testChanged() {
+        final PcmComponentDiagramGenerator diagram = getDiagram();
+        final RepositoryComponent component = repository.getComponents__Repository()
+            .get(0);
+        component.setEntityName("Renamed");
+
+        final PcmComponentDiagramGenerator changedDiagram = getDiagram();
+        assertNotSame(diagram, changedDiagram);
+        assertSame(diagram, previousDiagrams.get(1));
+        assertEquals(Set.of(component), recordedChanges.get(1));
+
+        component.setEntityName("Renamed again");
+        getDiagram();
+        assertSame(changedDiagram, previousDiagrams.get(2));
+        assertEquals(Set.of(component), recordedChanges.get(2));
+    }
+
+    /**
+     * Test if the diagram of a model that was changed during its generation is not kept
+     */
+    @Test
+    void testChangedDuringGeneration() {
+        final RepositoryComponent component = repository.getComponents__Repository()
+            .get(0);
+        final DiagramChangeRecorder recorder = DiagramChangeRecorder.getOrAttach(repository);
+        final long changeCount = recorder.getChangeCount();
+        final PcmComponentDiagramGenerator diagram = recorder.getDiagram(repository,
+                PcmComponentDiagramGenerator.class, (previous, changes) -> {
+                    final PcmComponentDiagramGenerator generated = new PcmComponentDiagramGenerator(repository);
+                    component.setEntityName("Renamed");
+                    return generated;
+                });
+        assertNotEquals(changeCount, recorder.getChangeCount());
+
+        assertNotSame(diagram, getDiagram());
+        assertNull(previousDiagrams.get(0));
+    }
+
+    /**
+     * Test if a diagram is generated from scratch after many changes
+     */
+    @Test
+    void testManyChanges() {
+        repository = RepositoryFixture.createRepository(4000);
+        getDiagram();
+        for (final RepositoryComponent component : repository.getComponents__Repository()) {
+            for (final Role role : component.getRequiredRoles_InterfaceRequiringEntity()) {
+                role.setEntityName(role.getEntityName() + "'");
+            }
+        }
+
+        getDiagram();
+        assertNull(previousDiagrams.get(1));
+    }
+
+    /**
+     * Test if the diagram of an unchanged model is kept
+     */
+    @Test
+    void testUnchanged() {
+        final PcmComponentDiagramGenerator diagram = getDiagram();
+        assertSame(diagram, getDiagram());
+        assertEquals(1, previousDiagrams.size());
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.DiagramTextCache;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.PcmSystemDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Tests the cache of diagram texts.
+ */
+class DiagramTextCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger generations = new AtomicInteger();
+    private Repository repository;
+
+    private String getDiagramText(final String version) {
+        final Supplier<UmlDiagramSupplier> generator = () -> {
+            generations.incrementAndGet();
+            return new PcmComponentDiagramGenerator(repository);
+        };
+        return new DiagramTextCache(directory.resolve("cache"), 4, version)
+            .get(repository, PcmComponentDiagramGenerator.class, generator)
+            .get();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry()
+            .getExtensionToFactoryMap()
+            .put("repository", new XMIResourceFactoryImpl());
+        final Resource resource = resourceSet.createResource(URI.createFileURI(directory.resolve("test.repository")
+            .toString()));
+        repository = RepositoryFixture.createRepository(10);
+        resource.getContents()
+            .add(repository);
+        resource.save(null);
+        resource.setTrackingModification(true);
+    }
+
+    /**
+     * Test if the text of an unchanged model is read from the disk by a new cache instance.
+     */
+    @Test
+    void testCachedOnDisk() {
+        final String diagramText = getDiagramText("1");
+        assertEquals(diagramText, getDiagramText("1"));
+        assertEquals(1, generations.get());
+    }
+
+    /**
+     * Test if other diagrams are available while a diagram is generated and if a diagram that is
+     * rendered again during its generation is generated once.
+     */
+    @Test
+    void testConcurrentGeneration() throws Exception {
+        final DiagramTextCache cache = new DiagramTextCache(null, 4, "1");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Supplier<UmlDiagramSupplier> generator = () -> () -> {
+            generations.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+            return new PcmComponentDiagramGenerator(repository).get();
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache
+                .get(repository, PcmComponentDiagramGenerator.class, generator)
+                .get());
+            started.await();
+            final Future<String> second = executor.submit(() -> cache
+                .get(repository, PcmComponentDiagramGenerator.class, generator)
+                .get());
+            assertNotNull(assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache
+                .get(repository, PcmSystemDiagramGenerator.class, () -> new PcmComponentDiagramGenerator(repository))
+                .get()));
+
+            release.countDown();
+            assertEquals(first.get(), second.get());
+            assertEquals(1, generations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test if the text of a modified model is generated again.
+     */
+    @Test
+    void testModified() {
+        getDiagramText("1");
+        repository.getComponents__Repository()
+            .get(0)
+            .setEntityName("Renamed");
+        final String diagramText = getDiagramText("1");
+        assertEquals(new PcmComponentDiagramGenerator(repository).get(), diagramText);
+        assertEquals(2, generations.get());
+    }
+
+    /**
+     * Test if the text of a model whose resource does not track its modification is generated again.
+     */
+    @Test
+    void testUntracked() {
+        repository.eResource()
+            .setTrackingModification(false);
+        getDiagramText("1");
+        getDiagramText("1");
+        assertEquals(2, generations.get());
+    }
+
+    /**
+     * Test if texts of other generator versions are not used.
+     */
+    @Test
+    void testVersion() {
+        getDiagramText("1");
+        getDiagramText("2");
+        assertEquals(2, generations.get());
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.repository.RepositoryFactory;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Tests the escaping of identifiers.
+ */
+class EscapeTest {
+
+    private static String escapeWithRegex(final String identifier) {
+        return identifier.strip()
+            .replaceAll("\\s+", ".")
+            .replaceAll("\\W+", "_");
+    }
+
+    /**
+     * Test if identifiers are escaped like with the former regular expressions
+     */
+    @Test
+    void testEscape() {
+        final String[] identifiers = { "", " ", "Component", "  Web Server ", "a - b", "a.b", "-a-", "a\t\nb",
+                "Caf\u00e9", "\u00fcber__all", "x\u2003y", "emoji\ud83d\ude00", "(a)[b]{c}", "A1_b2" };
+        for (final String identifier : identifiers) {
+            assertEquals(escapeWithRegex(identifier), UmlDiagramSupplier.escape(identifier), identifier);
+        }
+    }
+
+    /**
+     * Test if different names with the same identifier are reported once
+     */
+    @Test
+    void testIdentifierCollision() {
+        final Repository repository = RepositoryFactory.eINSTANCE.createRepository();
+        for (final String name : List.of("Cache A", "Cache-A", "Cache_B")) {
+            final BasicComponent component = RepositoryFactory.eINSTANCE.createBasicComponent();
+            component.setEntityName(name);
+            repository.getComponents__Repository()
+                .add(component);
+        }
+
+        final List<String> collisions = new ArrayList<>();
+        UmlDiagramSupplier.setGenerationListener(new GenerationListener() {
+            @Override
+            public void identifierCollided(final Class<? extends UmlDiagramSupplier> diagram,
+                    final String identifier, final String name, final String otherName) {
+                collisions.add(identifier);
+            }
+        });
+        try {
+            assertNotNull(new PcmComponentDiagramGenerator(repository).get());
+            assertEquals(List.of("Cache_A"), collisions);
+        } finally {
+            UmlDiagramSupplier.setGenerationListener(null);
+        }
+    }
+
+    /**
+     * Test if identifiers without special characters are returned as they are
+     */
+    @Test
+    void testUnchanged() {
+        final String identifier = "Access_Control1";
+        assertSame(identifier, UmlDiagramSupplier.escape(identifier));
+        assertEquals("", UmlDiagramSupplier.escape(null));
+    }
+
+}
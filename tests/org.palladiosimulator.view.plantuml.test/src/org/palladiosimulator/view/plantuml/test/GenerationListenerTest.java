@@ -0,0 +1,55 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener;
+import org.palladiosimulator.view.plantuml.generator.GenerationListener.Phase;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+import org.palladiosimulator.view.plantuml.generator.UmlDiagramSupplier;
+
+/**
+ * Tests the metrics reported to the generation listener.
+ */
+class GenerationListenerTest {
+
+    @AfterEach
+    void tearDown() {
+        UmlDiagramSupplier.setGenerationListener(null);
+    }
+
+    /**
+     * Test if the generation listener receives the phases and the size of a generated diagram
+     */
+    @Test
+    void testGenerationListener() {
+        final Set<Phase> phases = EnumSet.noneOf(Phase.class);
+        final long[] characters = new long[1];
+        final Class<?>[] diagrams = new Class<?>[1];
+        UmlDiagramSupplier.setGenerationListener(new GenerationListener() {
+            @Override
+            public void diagramGenerated(final Class<? extends UmlDiagramSupplier> diagram, final int elements,
+                    final long length, final long allocatedBytes) {
+                diagrams[0] = diagram;
+                characters[0] = length;
+            }
+
+            @Override
+            public void phaseCompleted(final Class<? extends UmlDiagramSupplier> diagram, final Phase phase,
+                    final long nanos) {
+                phases.add(phase);
+            }
+        });
+
+        final String diagramText = new PcmComponentDiagramGenerator(RepositoryFixture.createRepository(10)).get();
+        assertEquals(PcmComponentDiagramGenerator.class, diagrams[0]);
+        assertEquals(diagramText.length(), characters[0]);
+        assertTrue(phases.containsAll(Set.of(Phase.COLLECTION, Phase.EMISSION, Phase.ESCAPING)));
+    }
+
+}
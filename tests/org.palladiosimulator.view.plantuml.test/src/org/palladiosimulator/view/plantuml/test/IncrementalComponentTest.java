@@ -0,0 +1,71 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.OperationInterface;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+
+/**
+ * Tests the regeneration of component diagrams from the diagram of a previous model state.
+ */
+class IncrementalComponentTest {
+
+    private PcmComponentDiagramGenerator previous;
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = RepositoryFixture.createRepository(20);
+        previous = new PcmComponentDiagramGenerator(repository);
+        // The diagram is generated lazily, the previous diagram was shown before the changes
+        previous.get();
+    }
+
+    /**
+     * Test if a changed interface is regenerated in all components.
+     */
+    @Test
+    void testChangedInterface() {
+        final OperationInterface iface = (OperationInterface) repository.getInterfaces__Repository()
+            .get(3);
+        iface.setEntityName("IRenamed");
+
+        final String diagramText = new PcmComponentDiagramGenerator(repository, previous, Set.of(iface)).get();
+        assertEquals(new PcmComponentDiagramGenerator(repository).get(), diagramText);
+        assertNotEquals(previous.get(), diagramText);
+    }
+
+    /**
+     * Test if a changed role is regenerated.
+     */
+    @Test
+    void testChangedRole() {
+        final BasicComponent component = (BasicComponent) repository.getComponents__Repository()
+            .get(5);
+        final OperationRequiredRole role = (OperationRequiredRole) component.getRequiredRoles_InterfaceRequiringEntity()
+            .get(0);
+        role.setRequiredInterface__OperationRequiredRole((OperationInterface) repository.getInterfaces__Repository()
+            .get(12));
+
+        final String diagramText = new PcmComponentDiagramGenerator(repository, previous, Set.of(role)).get();
+        assertEquals(new PcmComponentDiagramGenerator(repository).get(), diagramText);
+        assertNotEquals(previous.get(), diagramText);
+    }
+
+    /**
+     * Test if the diagram is unchanged without changes.
+     */
+    @Test
+    void testUnchanged() {
+        assertEquals(previous.get(), new PcmComponentDiagramGenerator(repository, previous, Set.of()).get());
+    }
+
+}
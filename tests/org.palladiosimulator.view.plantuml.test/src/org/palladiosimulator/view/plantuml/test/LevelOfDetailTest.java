@@ -0,0 +1,48 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+
+/**
+ * Tests the reduced level of detail of diagrams that exceed their element budget.
+ */
+class LevelOfDetailTest {
+
+    private static final Repository REPOSITORY = RepositoryFixture.createRepository(250);
+
+    /**
+     * Test if a repository that exceeds the element budget is reduced to at most the budget of
+     * nodes and edges
+     */
+    @Test
+    void testReducedLevelOfDetail() {
+        final int budget = 100;
+        final String diagramText = new PcmComponentDiagramGenerator(REPOSITORY, null, Set.of(),
+                DiagramOptions.DEFAULT.withElementBudget(budget)).get();
+
+        final long nodes = diagramText.lines()
+            .filter(x -> x.startsWith("[") && !x.contains("..>"))
+            .count();
+        assertTrue(nodes <= budget);
+        assertTrue(AbstractPlantUmlTest.countOccurrences(diagramText, "requires") <= budget);
+        assertTrue(diagramText.contains("Reduced level of detail"));
+    }
+
+    /**
+     * Test if a repository within the element budget is shown at full detail
+     */
+    @Test
+    void testWithinBudget() {
+        final String diagramText = new PcmComponentDiagramGenerator(REPOSITORY, null, Set.of(),
+                DiagramOptions.DEFAULT.withElementBudget(10000)).get();
+        assertEquals(new PcmComponentDiagramGenerator(REPOSITORY).get(), diagramText);
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
+import org.palladiosimulator.view.plantuml.generator.PcmComponentDiagramGenerator;
+
+/**
+ * Tests the parallel rendering of the component fragments.
+ */
+class ParallelComponentTest {
+
+    /**
+     * Test if the parallel generation of a large repository creates the same diagram as the
+     * sequential generation
+     */
+    @Test
+    void testParallelGeneration() {
+        final Repository repository = RepositoryFixture.createRepository(2000);
+        final DiagramOptions sequential = DiagramOptions.DEFAULT.withParallel(false);
+        assertEquals(new PcmComponentDiagramGenerator(repository, null, Set.of(), sequential).get(),
+                new PcmComponentDiagramGenerator(repository, null, Set.of(), DiagramOptions.DEFAULT).get());
+    }
+
+    /**
+     * Test if a repository below the threshold of the parallel rendering creates the same diagram
+     */
+    @Test
+    void testSmallRepository() {
+        final Repository repository = RepositoryFixture.createRepository(10);
+        assertEquals(
+                new PcmComponentDiagramGenerator(repository, null, Set.of(), DiagramOptions.DEFAULT.withParallel(false))
+                    .get(),
+                new PcmComponentDiagramGenerator(repository).get());
+    }
+
+}
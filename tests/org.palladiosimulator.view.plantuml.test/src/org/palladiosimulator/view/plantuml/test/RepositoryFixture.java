@@ -0,0 +1,61 @@
+package org.palladiosimulator.view.plantuml.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.OperationInterface;
+import org.palladiosimulator.pcm.repository.OperationProvidedRole;
+import org.palladiosimulator.pcm.repository.OperationRequiredRole;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.repository.RepositoryFactory;
+
+/**
+ * The synthetic repositories shared by the tests of large and changing models.
+ */
+final class RepositoryFixture {
+
+    /**
+     * The number of roles of every component, one provided role and the required ones.
+     */
+    static final int ROLES_PER_COMPONENT = 4;
+
+    /**
+     * Creates a repository with one component per interface. Every component provides its own
+     * interface and requires the following ones.
+     *
+     * @param interfaceCount the number of interfaces
+     * @return the repository
+     */
+    static Repository createRepository(final int interfaceCount) {
+        final RepositoryFactory factory = RepositoryFactory.eINSTANCE;
+        final Repository repository = factory.createRepository();
+        final List<OperationInterface> ifaces = new ArrayList<>();
+        for (int i = 0; i < interfaceCount; i++) {
+            final OperationInterface iface = factory.createOperationInterface();
+            iface.setEntityName("IService" + i);
+            repository.getInterfaces__Repository().add(iface);
+            ifaces.add(iface);
+        }
+        for (int i = 0; i < interfaceCount; i++) {
+            final BasicComponent component = factory.createBasicComponent();
+            component.setEntityName("Service" + i);
+            final OperationProvidedRole provRole = factory.createOperationProvidedRole();
+            provRole.setEntityName("provides" + i);
+            provRole.setProvidedInterface__OperationProvidedRole(ifaces.get(i));
+            component.getProvidedRoles_InterfaceProvidingEntity().add(provRole);
+            for (int j = 1; j < ROLES_PER_COMPONENT; j++) {
+                final OperationRequiredRole reqRole = factory.createOperationRequiredRole();
+                reqRole.setEntityName("requires" + i + "." + j);
+                reqRole.setRequiredInterface__OperationRequiredRole(ifaces.get((i + j) % interfaceCount));
+                component.getRequiredRoles_InterfaceRequiringEntity().add(reqRole);
+            }
+            repository.getComponents__Repository().add(component);
+        }
+        return repository;
+    }
+
+    private RepositoryFixture() {
+    }
+
+}
@@ -3,6 +3,8 @@ package org.palladiosimulator.view.plantuml.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
 
@@ -13,6 +15,7 @@ import org.palladiosimulator.pcm.core.composition.AssemblyConnector;
 import org.palladiosimulator.pcm.core.composition.AssemblyContext;
 import org.palladiosimulator.pcm.core.composition.Connector;
 import org.palladiosimulator.pcm.system.System;
+import org.palladiosimulator.view.plantuml.generator.DiagramOptions;
 import org.palladiosimulator.view.plantuml.generator.PcmSystemDiagramGenerator;
 
 /**
@@ -64,6 +67,18 @@ class SystemTest extends AbstractPlantUmlTest {
         }
     }
 
+    /**
+     * Test if the components link to their repository, unless hyperlinks are disabled
+     */
+    @Test
+    void testHyperlinks() {
+        assertTrue(AbstractPlantUmlTest.countOccurrences(diagramText, "[[") > 0);
+        final String textWithoutLinks = new PcmSystemDiagramGenerator(system,
+                DiagramOptions.DEFAULT.withHyperlinks(false)).get();
+        assertEquals(0, AbstractPlantUmlTest.countOccurrences(textWithoutLinks, "[["));
+        assertEquals(diagramText.lines().count(), textWithoutLinks.lines().count());
+    }
+
     /**
      * Test if a provided interface exists and is connected to the rest of the
      * diagram
@@ -93,4 +108,14 @@ class SystemTest extends AbstractPlantUmlTest {
                 "@startuml".equals(splittedText.get(0)) && "@enduml".equals(splittedText.get(splittedText.size() - 1)));
     }
 
+    /**
+     * Test if the streamed diagram text equals the generated text
+     */
+    @Test
+    void testWriteTo() throws IOException {
+        final StringWriter writer = new StringWriter();
+        new PcmSystemDiagramGenerator(system).writeTo(writer);
+        assertEquals(diagramText, writer.toString());
+    }
+
 }